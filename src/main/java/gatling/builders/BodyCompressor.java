@@ -0,0 +1,55 @@
+package gatling.builders;
+
+import gatling.enums.Compression;
+import gatling.utils.StatsRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses request bodies and records raw versus wire byte counts
+ * as {@code http.compression.request.rawBytes} and {@code http.compression.request.wireBytes}.
+ */
+public final class BodyCompressor {
+
+    static final String RAW_BYTES = "http.compression.request.rawBytes";
+    static final String WIRE_BYTES = "http.compression.request.wireBytes";
+
+    private BodyCompressor() {
+        throw new UnsupportedOperationException("BodyCompressor is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Compresses the given bytes with the requested codec.
+     *
+     * @param bytes       The uncompressed bytes
+     * @param compression The codec
+     * @return the compressed bytes
+     */
+    public static byte[] compress(byte[] bytes, Compression compression) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+        try (OutputStream compressor = compression == Compression.GZIP
+                ? new GZIPOutputStream(out)
+                : new DeflaterOutputStream(out)) {
+            compressor.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to " + compression + " compress request body", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Records one request sent with the given raw and compressed sizes.
+     *
+     * @param rawBytes  Uncompressed size
+     * @param wireBytes Compressed size
+     */
+    static void record(int rawBytes, int wireBytes) {
+        StatsRegistry.add(RAW_BYTES, rawBytes);
+        StatsRegistry.add(WIRE_BYTES, wireBytes);
+    }
+}
@@ -1,21 +1,45 @@
 package gatling.builders;
 
+import gatling.enums.BodyMode;
+import gatling.enums.Compression;
 import gatling.enums.HttpMethod;
+import gatling.enums.ResponseBodyMode;
+import gatling.utils.StatsRegistry;
+import io.gatling.http.response.Response;
+import io.gatling.javaapi.core.Body;
 import io.gatling.javaapi.core.ChainBuilder;
 import io.gatling.javaapi.core.CheckBuilder;
+import io.gatling.javaapi.core.Session;
+import io.gatling.javaapi.core.internal.CoreCheckType;
 import io.gatling.javaapi.http.HttpRequestActionBuilder;
+import io.gatling.javaapi.http.internal.HttpCheckType;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
+import static io.gatling.javaapi.core.CoreDsl.ByteArrayBody;
 import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.group;
+import static io.gatling.javaapi.core.CoreDsl.gzipBody;
 import static io.gatling.javaapi.core.CoreDsl.jsonPath;
 import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.http.HttpDsl.header;
 import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
 
 /**
  * Factory class for building Gatling chains with a fluent API.
@@ -25,13 +49,30 @@ import static io.gatling.javaapi.http.HttpDsl.http;
 public class ChainBuilderFactory {
     private static final Logger logger = LoggerFactory.getLogger(ChainBuilderFactory.class);
 
+    /**
+     * Registry key placeholders for values without value equality; the cache key stands for them.
+     */
+    private static final String CUSTOM_CHECK = "custom-check";
+    private static final String CUSTOM_BODY = "custom-body";
+
     @Getter
     private final String name;
     private HttpMethod method;
     private String path;
     private Object body;
+    private BodyMode bodyMode = BodyMode.AUTO;
+    private ResponseBodyMode responseBodyMode = ResponseBodyMode.AUTO;
+    private boolean cacheTracking;
+    private Compression compression;
+    private Duration requestTimeout;
+    private String cacheKey;
+    private boolean customChecks;
     private final List<CheckBuilder> checks = new ArrayList<>();
-    private final Map<String, String> headers = new java.util.HashMap<>();
+    private final List<Object> checkKeys = new ArrayList<>();
+    private final Map<String, String> headers = new HashMap<>();
+    private final Map<String, Map<String, String>> streamedSaves = new LinkedHashMap<>();
+    private final List<SampledChecks> sampledChecks = new ArrayList<>();
+    private final List<ChainBuilderFactory> resources = new ArrayList<>();
 
     /**
      * Creates a new ChainBuilderFactory with the given request name.
@@ -58,7 +99,8 @@ public class ChainBuilderFactory {
     }
 
     /**
-     * Sets the request body.
+     * Sets the request body. Accepts a String (or any object rendered via toString),
+     * a byte array, a compiled {@link JsonBodyTemplate}, or a prebuilt Gatling Body.
      *
      * @param body The request body
      * @return this instance for fluent API
@@ -69,6 +111,107 @@ public class ChainBuilderFactory {
         return this;
     }
 
+    /**
+     * Sets a compiled JSON template as the request body.
+     * The template is rendered per request straight into a pooled buffer.
+     *
+     * @param template The compiled template
+     * @return this instance for fluent API
+     */
+    public ChainBuilderFactory withBody(JsonBodyTemplate template) {
+        logger.debug("Setting compiled template body for chain: {}. Slots: {}", name, template.getAttributes());
+        this.body = template;
+        return this;
+    }
+
+    /**
+     * Compresses the request body and sends it with a matching Content-Encoding header.
+     * Static bodies are compressed once at build time and the same bytes are sent every time;
+     * compiled templates are compressed per request. Raw versus wire byte counts are recorded
+     * in {@link gatling.utils.StatsRegistry}.
+     *
+     * @param compression The codec, or null to disable compression
+     * @return this instance for fluent API
+     */
+    public ChainBuilderFactory withBodyCompression(Compression compression) {
+        logger.debug("Setting body compression: {} for chain: {}", compression, name);
+        this.compression = compression;
+        return this;
+    }
+
+    /**
+     * Overrides the engine-wide request timeout ({@code gatling.http.requestTimeout}) for this request.
+     *
+     * @param requestTimeout The timeout
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if the timeout is null, zero or negative
+     */
+    public ChainBuilderFactory withRequestTimeout(Duration requestTimeout) {
+        if (requestTimeout == null || requestTimeout.isZero() || requestTimeout.isNegative()) {
+            String error = "Request timeout must be positive";
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Setting request timeout: {} for chain: {}", requestTimeout, name);
+        this.requestTimeout = requestTimeout;
+        return this;
+    }
+
+    /**
+     * Sets how the request body is encoded at build time.
+     * Defaults to {@link BodyMode#AUTO}, which only uses Expression Language
+     * when the body contains {@code #{...}} placeholders.
+     *
+     * @param bodyMode The body encoding mode
+     * @return this instance for fluent API
+     */
+    public ChainBuilderFactory withBodyMode(BodyMode bodyMode) {
+        if (bodyMode == null) {
+            String error = "Body mode must not be null";
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Setting body mode: {} for chain: {}", bodyMode, name);
+        this.bodyMode = bodyMode;
+        return this;
+    }
+
+    /**
+     * Sets whether response bodies are kept or drained and discarded.
+     * Defaults to {@link ResponseBodyMode#AUTO}, which discards the body when
+     * the registered checks only look at status and headers.
+     *
+     * @param responseBodyMode The response body mode
+     * @return this instance for fluent API
+     */
+    public ChainBuilderFactory withResponseBodyMode(ResponseBodyMode responseBodyMode) {
+        if (responseBodyMode == null) {
+            String error = "Response body mode must not be null";
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Setting response body mode: {} for chain: {}", responseBodyMode, name);
+        this.responseBodyMode = responseBodyMode;
+        return this;
+    }
+
+    /**
+     * Records HTTP cache revalidation outcomes for this request: 304 Not Modified counts
+     * and estimated saved bytes, available from {@link HttpCacheStats}.
+     * Conditional requests themselves are sent by the protocol's per-user cache, which is on
+     * unless {@code HttpProtocolFactory#disableHttpCache()} is called.
+     *
+     * @return this instance for fluent API
+     */
+    public ChainBuilderFactory withCacheTracking() {
+        logger.debug("Enabling HTTP cache tracking for chain: {}", name);
+        if (!cacheTracking) {
+            this.cacheTracking = true;
+            this.checkKeys.add(List.of("cacheTracking"));
+        }
+        return this;
+    }
+
     /**
      * Adds a header to the request.
      *
@@ -96,6 +239,9 @@ public class ChainBuilderFactory {
 
     /**
      * Adds a check to the request.
+     * CheckBuilder instances cannot be compared by value, so a chain with custom checks is only
+     * shared through the {@link ChainRegistry} when it also sets {@link #withCacheKey(String)}.
+     * Prefer {@link #withStatus(int...)} for status checks.
      *
      * @param check The check to add
      * @return this instance for fluent API
@@ -103,11 +249,14 @@ public class ChainBuilderFactory {
     public ChainBuilderFactory withCheck(CheckBuilder check) {
         logger.debug("Adding check for chain: {}", name);
         this.checks.add(check);
+        this.checkKeys.add(CUSTOM_CHECK);
+        this.customChecks = true;
         return this;
     }
 
     /**
      * Adds multiple checks to the request.
+     * As with {@link #withCheck(CheckBuilder)}, the chain is only shared when it sets a cache key.
      *
      * @param checks Array of checks to add
      * @return this instance for fluent API
@@ -115,11 +264,118 @@ public class ChainBuilderFactory {
     public ChainBuilderFactory withChecks(CheckBuilder... checks) {
         logger.debug("Adding {} checks for chain: {}", checks.length, name);
         this.checks.addAll(List.of(checks));
+        for (int i = 0; i < checks.length; i++) {
+            this.checkKeys.add(CUSTOM_CHECK);
+        }
+        this.customChecks = checks.length > 0 || customChecks;
+        return this;
+    }
+
+    /**
+     * Checks that the response status is one of the given codes.
+     * Unlike a custom status check, this is keyed by value in the {@link ChainRegistry}.
+     *
+     * @param statuses Accepted status codes
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if no status code is given
+     */
+    public ChainBuilderFactory withStatus(int... statuses) {
+        if (statuses == null || statuses.length == 0) {
+            String error = "At least one status code is required";
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Adding status check {} for chain: {}", Arrays.toString(statuses), name);
+        List<Integer> accepted = Arrays.stream(statuses).boxed().toList();
+        this.checks.add(accepted.size() == 1 ? status().is(accepted.get(0)) : status().in(accepted));
+        this.checkKeys.add(Arrays.asList("status", accepted));
+        return this;
+    }
+
+    /**
+     * Sets the key under which this chain is shared through the {@link ChainRegistry} when it
+     * holds values that cannot be compared by value: custom checks, sampled checks or a prebuilt
+     * Gatling Body. Chains with such values and no cache key are built fresh on every call.
+     * The key replaces those values in the registry key, so every chain built with the same key
+     * and otherwise identical options must use equivalent checks and body.
+     *
+     * @param cacheKey The cache key, e.g. {@code "login-status-200"}
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if the key is blank
+     */
+    public ChainBuilderFactory withCacheKey(String cacheKey) {
+        if (cacheKey == null || cacheKey.isBlank()) {
+            String error = "Cache key must not be blank";
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Setting registry cache key: {} for chain: {}", cacheKey, name);
+        this.cacheKey = cacheKey;
+        return this;
+    }
+
+    /**
+     * Adds checks that only run on a fraction of responses.
+     * Intended for expensive content validations (jsonPath, jmesPath, bodyString); status checks
+     * and saveAs correlation checks should stay in {@link #withStatus(int...)} or
+     * {@link #withCheck(CheckBuilder)} so they run on every response. One draw per request decides whether the whole group runs.
+     * Sampled and skipped responses are counted in {@link StatsRegistry} as
+     * {@code checks.sampled.<chain>.<group>} and {@code checks.skipped.<chain>.<group>},
+     * where group is the 0-based order of the {@code withSampledChecks} calls on this chain.
+     *
+     * @param sampleRate Fraction of responses to validate, in (0, 1]
+     * @param checks The checks to sample
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if the rate is out of range or no checks are given
+     */
+    public ChainBuilderFactory withSampledChecks(double sampleRate, CheckBuilder... checks) {
+        if (sampleRate <= 0 || sampleRate > 1 || checks == null || checks.length == 0) {
+            String error = String.format("Invalid sampled checks: rate=%s, checks=%d",
+                sampleRate, checks == null ? 0 : checks.length);
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Adding {} sampled checks at rate {} for chain: {}", checks.length, sampleRate, name);
+        this.sampledChecks.add(new SampledChecks(sampleRate, List.of(checks)));
+        this.checkKeys.add(Arrays.asList("sampled", sampleRate, Collections.nCopies(checks.length, CUSTOM_CHECK)));
+        this.customChecks = true;
+        return this;
+    }
+
+    /**
+     * Attaches sub-requests fetched concurrently once this request completes, over the
+     * protocol's connection pool. Each sub-request is reported with its own timing, and the
+     * whole batch is wrapped in a group named {@code "<name> batch"} for aggregate timing.
+     * Sub-requests may use checks and saveAs, but not saveAllAs.
+     *
+     * @param resources The sub-request factories
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if a sub-request is missing its method or path, or uses saveAllAs
+     */
+    public ChainBuilderFactory withResources(ChainBuilderFactory... resources) {
+        if (resources == null || resources.length == 0) {
+            logger.warn("No resources provided for chain: {}; operation skipped.", name);
+            return this;
+        }
+        for (ChainBuilderFactory resource : resources) {
+            if (resource == null || resource.method == null || resource.path == null || !resource.streamedSaves.isEmpty()
+                || !resource.resources.isEmpty()) {
+                String error = "Resources must set method and path and cannot use saveAllAs or nested resources";
+                logger.error("{} for chain: {}", error, name);
+                throw new IllegalArgumentException(error);
+            }
+        }
+        logger.debug("Adding {} concurrent resources for chain: {}", resources.length, name);
+        this.resources.addAll(List.of(resources));
         return this;
     }
 
     /**
      * Saves a value from a JSON path to a session variable.
+     * Simple object paths such as {@code $.accessToken} are extracted by streaming the
+     * response and stopping at the first match; other paths fall back to jsonPath.
+     * The two differ on a field whose value is JSON null: jsonPath finds it and saves null,
+     * while the streamed extraction treats it as missing, so the check fails and nothing is saved.
      *
      * @param jsonPath The JSON path expression
      * @param sessionKey The key to save the value as in the session
@@ -127,6 +383,15 @@ public class ChainBuilderFactory {
      */
     public ChainBuilderFactory saveAs(String jsonPath, String sessionKey) {
         logger.debug("Adding saveAs check for chain: {}. JSON Path: {}, Session Key: {}", name, jsonPath, sessionKey);
+        this.checkKeys.add(Arrays.asList("saveAs", jsonPath, sessionKey));
+        if (StreamingJsonExtractor.isSimplePath(jsonPath)) {
+            this.checks.add(
+                StreamingJsonExtractor.field(jsonPath)
+                    .exists()
+                    .saveAs(sessionKey)
+            );
+            return this;
+        }
         this.checks.add(
             jsonPath(jsonPath)
                 .exists()
@@ -137,6 +402,8 @@ public class ChainBuilderFactory {
 
     /**
      * Saves a value from a JSON path to a session variable with validation.
+     * Simple object paths are extracted by streaming, other paths fall back to jsonPath.
+     * A streamed field whose value is JSON null never matches the expected value.
      *
      * @param jsonPath The JSON path expression
      * @param sessionKey The key to save the value as in the session
@@ -146,6 +413,15 @@ public class ChainBuilderFactory {
     public ChainBuilderFactory saveAs(String jsonPath, String sessionKey, String expectedValue) {
         logger.debug("Adding saveAs check with validation for chain: {}. JSON Path: {}, Session Key: {}, Expected Value: {}", 
             name, jsonPath, sessionKey, expectedValue);
+        this.checkKeys.add(Arrays.asList("saveAs", jsonPath, sessionKey, expectedValue));
+        if (StreamingJsonExtractor.isSimplePath(jsonPath)) {
+            this.checks.add(
+                StreamingJsonExtractor.field(jsonPath)
+                    .is(expectedValue)
+                    .saveAs(sessionKey)
+            );
+            return this;
+        }
         this.checks.add(
             jsonPath(jsonPath)
                 .is(expectedValue)
@@ -154,8 +430,45 @@ public class ChainBuilderFactory {
         return this;
     }
 
+    /**
+     * Saves several JSON fields to session variables in a single streaming pass over the response.
+     * The check fails unless every field is present. A field whose value is JSON null counts
+     * as present and is saved as null, as jsonPath would save it. Paths may overlap, e.g.
+     * {@code $.user} and {@code $.user.id}: the object is saved as compact JSON and its nested
+     * fields are saved as well.
+     *
+     * @param jsonPathToSessionKey Map of simple JSON path to session key
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if the map is empty or contains a non-simple path
+     */
+    public ChainBuilderFactory saveAllAs(Map<String, String> jsonPathToSessionKey) {
+        if (jsonPathToSessionKey == null || jsonPathToSessionKey.isEmpty()) {
+            String error = "At least one JSON path to session key mapping is required";
+            logger.error("{} for chain: {}", error, name);
+            throw new IllegalArgumentException(error);
+        }
+        logger.debug("Adding streaming saveAllAs check for chain: {}. Mappings: {}", name, jsonPathToSessionKey);
+
+        String holderKey = "__" + name + "_streamed_" + streamedSaves.size();
+        Map<String, String> normalizedMapping = new LinkedHashMap<>();
+        jsonPathToSessionKey.forEach((path, key) ->
+            normalizedMapping.put(path.startsWith("$.") ? path.substring(2) : path, key));
+
+        this.checks.add(
+            StreamingJsonExtractor.fields(List.copyOf(jsonPathToSessionKey.keySet()))
+                .exists()
+                .saveAs(holderKey)
+        );
+        this.streamedSaves.put(holderKey, normalizedMapping);
+        this.checkKeys.add(Arrays.asList("saveAllAs", new HashMap<>(jsonPathToSessionKey)));
+        return this;
+    }
+
     /**
      * Builds the final ChainBuilder with all configured options.
+     * Identical request specifications share one chain through the {@link ChainRegistry}.
+     * Chains with custom checks or a prebuilt body are only shared when they set
+     * {@link #withCacheKey(String)}; otherwise they are built fresh and counted as bypassed.
      *
      * @return A ChainBuilder instance
      * @throws IllegalStateException if method or path is not set
@@ -169,6 +482,61 @@ public class ChainBuilderFactory {
             throw new IllegalStateException(error);
         }
 
+        if (cacheKey == null && hasUnkeyedValues()) {
+            return ChainRegistry.bypass(name, this::buildChain);
+        }
+        return ChainRegistry.getOrBuild(spec(), this::buildChain);
+    }
+
+    /**
+     * Returns whether this chain or one of its resources holds values compared by identity only.
+     */
+    private boolean hasUnkeyedValues() {
+        return customChecks || body instanceof Body
+            || resources.stream().anyMatch(resource -> resource.customChecks || resource.body instanceof Body);
+    }
+
+    /**
+     * Returns the full request specification used as the registry key.
+     */
+    private ChainRegistry.ChainSpec spec() {
+        return new ChainRegistry.ChainSpec(
+            name, method, path, new HashMap<>(headers), Arrays.asList(bodyKey(), compression), bodyMode, responseBodyMode,
+            requestTimeout, new ArrayList<>(checkKeys), resources.stream().map(ChainBuilderFactory::spec).toList(), cacheKey);
+    }
+
+    /**
+     * Builds a new chain from the configured options, bypassing the registry.
+     */
+    private ChainBuilder buildChain() {
+        HttpRequestActionBuilder request = buildRequest();
+
+        if (!resources.isEmpty()) {
+            logger.debug("Adding {} concurrent resources for chain: {}", resources.size(), name);
+            request = request.resources(resources.stream().map(ChainBuilderFactory::buildRequest).toList());
+        }
+
+        ChainBuilder chain = exec(request);
+        if (!sampledChecks.isEmpty() || resources.stream().anyMatch(resource -> !resource.sampledChecks.isEmpty())) {
+            chain = exec(this::drawSampledChecks).exec(chain).exec(this::clearSampledChecks);
+        }
+        for (Map.Entry<String, Map<String, String>> save : streamedSaves.entrySet()) {
+            chain = chain.exec(session -> spreadStreamedValues(session, save.getKey(), save.getValue()));
+        }
+
+        if (!resources.isEmpty()) {
+            logger.debug("Wrapping chain: {} in batch group for aggregate timing", name);
+            chain = group(name + " batch").on(chain);
+        }
+
+        logger.info("Successfully built chain: {}", name);
+        return chain;
+    }
+
+    /**
+     * Builds the HTTP request action with method, headers, body, checks and response body mode.
+     */
+    private HttpRequestActionBuilder buildRequest() {
         logger.debug("Building request with method: {} and path: {}", method, path);
         HttpRequestActionBuilder request;
         switch (method) {
@@ -209,21 +577,308 @@ public class ChainBuilderFactory {
 
         if (!headers.isEmpty()) {
             logger.debug("Adding headers for chain: {}. Headers: {}", name, headers);
-            request.headers(headers);
+            request = request.headers(headers);
         }
 
         if (body != null) {
             logger.debug("Adding body for chain: {}. Body: {}", name, body);
-            request.body(StringBody(body.toString()));
+            request = request.body(resolveBody());
+            if (compression != null) {
+                request = applyCompression(request);
+            }
         }
 
         if (!checks.isEmpty()) {
             logger.debug("Adding {} checks for chain: {}", checks.size(), name);
-            request.check(checks.toArray(new CheckBuilder[0]));
+            request = request.check(checks.toArray(new CheckBuilder[0]));
         }
 
-        logger.info("Successfully built chain: {}", name);
-        return exec(request);
+        for (int group = 0; group < sampledChecks.size(); group++) {
+            SampledChecks sampled = sampledChecks.get(group);
+            logger.debug("Adding {} checks sampled at rate {} for chain: {}", sampled.checks().size(), sampled.rate(), name);
+            // Gatling evaluates checkIf once per check, so every check of the group reads the
+            // decision drawn before the request, and only the first one counts the response.
+            String attribute = sampledAttribute(group);
+            String sampledCounter = "checks.sampled." + name + "." + group;
+            String skippedCounter = "checks.skipped." + name + "." + group;
+            for (int i = 0; i < sampled.checks().size(); i++) {
+                boolean counting = i == 0;
+                request = request.checkIf(session -> {
+                    boolean run = session.getBoolean(attribute);
+                    if (counting) {
+                        StatsRegistry.increment(run ? sampledCounter : skippedCounter);
+                    }
+                    return run;
+                }).then(sampled.checks().get(i));
+            }
+        }
+
+        if (requestTimeout != null) {
+            logger.debug("Adding request timeout {} for chain: {}", requestTimeout, name);
+            request = request.requestTimeout(requestTimeout);
+        }
+
+        if (cacheTracking) {
+            logger.debug("Adding HTTP cache tracking for chain: {}", name);
+            request = onResponse(request, response -> HttpCacheStats.record(name, response));
+        }
+
+        return applyResponseBodyMode(request);
+    }
+
+    /**
+     * Resolves the response body mode against the registered checks.
+     * Gatling only aggregates response chunks when a body-scoped check (or a response
+     * transformer, or HTTP debug logging) is present, so discarding means keeping the
+     * chain free of body checks. Drained bytes are counted through {@link #onResponse},
+     * which leaves Gatling's default status check in place.
+     *
+     * @param request The request being built
+     * @return the request, with a byte-counting hook when the body is discarded
+     * @throws IllegalStateException if DISCARD is requested with body-based checks
+     */
+    private HttpRequestActionBuilder applyResponseBodyMode(HttpRequestActionBuilder request) {
+        boolean needsBody = checks.stream().anyMatch(ChainBuilderFactory::isBodyCheck)
+            || sampledChecks.stream().flatMap(sampled -> sampled.checks().stream()).anyMatch(ChainBuilderFactory::isBodyCheck);
+
+        boolean discard = switch (responseBodyMode) {
+            case KEEP -> false;
+            case AUTO -> !needsBody;
+            case DISCARD -> {
+                if (needsBody) {
+                    String error = "Response body mode DISCARD cannot be used with body-based checks";
+                    logger.error("{} for chain: {}", error, name);
+                    throw new IllegalStateException(error);
+                }
+                yield true;
+            }
+        };
+
+        if (!discard) {
+            logger.debug("Keeping response bodies for chain: {}", name);
+            return request;
+        }
+
+        logger.debug("Draining and discarding response bodies for chain: {}", name);
+        String bytesCounter = "response.discarded.bytes." + name;
+        String countCounter = "response.discarded.count." + name;
+        return onResponse(request, response -> {
+            StatsRegistry.add(bytesCounter, wireLength(response));
+            StatsRegistry.increment(countCounter);
+        });
+    }
+
+    /**
+     * Calls the hook with every response of the request. The hook sits in the condition of a
+     * header-scoped check that never runs: a status-scoped one would replace Gatling's default
+     * 2xx/304 status check, and a body-scoped one would force the body to be kept.
+     */
+    private static HttpRequestActionBuilder onResponse(HttpRequestActionBuilder request, Consumer<Response> hook) {
+        return request.checkIf((response, session) -> {
+            hook.accept(response);
+            return false;
+        }).then(header(HttpHeaderNames.CONTENT_LENGTH).exists());
+    }
+
+    /**
+     * Returns the body size of a response as sent by the server: its Content-Length when
+     * present, otherwise the body length Gatling tracks for every response, kept or not
+     * (chunked responses, and compressed ones whose Content-Length the decoder drops).
+     */
+    static long wireLength(Response response) {
+        String contentLength = response.headers().get(HttpHeaderNames.CONTENT_LENGTH);
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid Content-Length: {}", contentLength);
+            }
+        }
+        return response.body().length();
+    }
+
+    /**
+     * Returns whether a check reads the response body (anything other than status, headers,
+     * location or response time).
+     */
+    private static boolean isBodyCheck(CheckBuilder check) {
+        CheckBuilder.CheckType type = check.type();
+        return !(type instanceof HttpCheckType) && type != CoreCheckType.ResponseTime;
+    }
+
+    /**
+     * Copies values extracted by a multi-field streaming check into their session keys.
+     */
+    private static Session spreadStreamedValues(Session session, String holderKey, Map<String, String> mapping) {
+        if (!session.contains(holderKey)) {
+            return session;
+        }
+        Map<String, Object> extracted = session.getMap(holderKey);
+        Map<String, Object> values = new LinkedHashMap<>();
+        mapping.forEach((path, key) -> values.put(key, extracted.get(path)));
+        return session.setAll(values).remove(holderKey);
+    }
+
+    /**
+     * Returns a value-comparable key for the configured body, used in the registry spec.
+     */
+    private Object bodyKey() {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof Body) {
+            return CUSTOM_BODY;
+        }
+        if (body instanceof byte[] bytes) {
+            return ByteBuffer.wrap(bytes.clone());
+        }
+        if (body instanceof JsonBodyTemplate template) {
+            return List.of("template", template.toString());
+        }
+        return body.toString();
+    }
+
+    /**
+     * Resolves the configured body into a Gatling Body according to the body mode.
+     * Static payloads are encoded to UTF-8 once so every request reuses the same buffer.
+     *
+     * @return the Body to attach to the request
+     */
+    private Body resolveBody() {
+        if (body instanceof Body prebuilt) {
+            logger.debug("Using prebuilt body for chain: {}", name);
+            return prebuilt;
+        }
+        if (body instanceof JsonBodyTemplate template) {
+            logger.debug("Using compiled template body for chain: {}", name);
+            if (compression == null) {
+                return template.asBody();
+            }
+            Compression codec = compression;
+            return ByteArrayBody(session -> {
+                byte[] raw = template.render(session);
+                byte[] compressed = BodyCompressor.compress(raw, codec);
+                BodyCompressor.record(raw.length, compressed.length);
+                return compressed;
+            });
+        }
+        if (body instanceof byte[] bytes) {
+            logger.debug("Using byte array body ({} bytes) for chain: {}", bytes.length, name);
+            return staticBytesBody(bytes);
+        }
+
+        String text = body.toString();
+        if (usesExpressionLanguage()) {
+            logger.debug("Using Expression Language body for chain: {}", name);
+            return StringBody(text);
+        }
+
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        logger.debug("Pre-encoded static body ({} bytes) for chain: {}", encoded.length, name);
+        return staticBytesBody(encoded);
+    }
+
+    /**
+     * Adds the Content-Encoding header. Byte-backed bodies are already compressed by
+     * {@link #resolveBody()}; Expression Language and prebuilt bodies can only be gzipped
+     * per request through Gatling's request body processor.
+     *
+     * @throws IllegalStateException if DEFLATE is requested for an EL or prebuilt body
+     */
+    private HttpRequestActionBuilder applyCompression(HttpRequestActionBuilder request) {
+        request = request.header("Content-Encoding", compression.getContentEncoding());
+        if (body instanceof Body || usesExpressionLanguage()) {
+            if (compression != Compression.GZIP) {
+                String error = "Only GZIP compression is supported for Expression Language or prebuilt bodies";
+                logger.error("{} for chain: {}", error, name);
+                throw new IllegalStateException(error);
+            }
+            logger.debug("Gzipping Expression Language body per request for chain: {}", name);
+            request = request.processRequestBody(gzipBody);
+        }
+        return request;
+    }
+
+    /**
+     * Returns a body sending the same buffer every time, compressed once up front when
+     * compression is enabled.
+     */
+    private Body staticBytesBody(byte[] bytes) {
+        if (compression == null) {
+            return ByteArrayBody(bytes);
+        }
+        byte[] compressed = BodyCompressor.compress(bytes, compression);
+        int rawLength = bytes.length;
+        logger.debug("Pre-compressed static body with {}: {} -> {} bytes for chain: {}",
+            compression, rawLength, compressed.length, name);
+        return ByteArrayBody(session -> {
+            BodyCompressor.record(rawLength, compressed.length);
+            return compressed;
+        });
+    }
+
+    /**
+     * Returns whether the body must go through Expression Language evaluation.
+     */
+    private boolean usesExpressionLanguage() {
+        if (body instanceof Body || body instanceof JsonBodyTemplate || body instanceof byte[]) {
+            return false;
+        }
+        return switch (bodyMode) {
+            case EL -> true;
+            case BYTES -> false;
+            case AUTO -> body.toString().contains("#{");
+        };
+    }
+
+    /**
+     * Draws, once per request, whether each sampled check group of this chain and its
+     * resources runs on the response.
+     */
+    private Session drawSampledChecks(Session session) {
+        session = drawSampledChecks(session, this);
+        for (ChainBuilderFactory resource : resources) {
+            session = drawSampledChecks(session, resource);
+        }
+        return session;
+    }
+
+    private static Session drawSampledChecks(Session session, ChainBuilderFactory factory) {
+        for (int group = 0; group < factory.sampledChecks.size(); group++) {
+            double rate = factory.sampledChecks.get(group).rate();
+            boolean run = rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate;
+            session = session.set(factory.sampledAttribute(group), run);
+        }
+        return session;
+    }
+
+    /**
+     * Removes the per-request sampling decisions once the checks have run, so they do not
+     * stay in the session for the rest of the user's life.
+     */
+    private Session clearSampledChecks(Session session) {
+        session = clearSampledChecks(session, this);
+        for (ChainBuilderFactory resource : resources) {
+            session = clearSampledChecks(session, resource);
+        }
+        return session;
+    }
+
+    private static Session clearSampledChecks(Session session, ChainBuilderFactory factory) {
+        for (int group = 0; group < factory.sampledChecks.size(); group++) {
+            session = session.remove(factory.sampledAttribute(group));
+        }
+        return session;
+    }
+
+    private String sampledAttribute(int group) {
+        return "sampledChecks." + name + "." + group;
+    }
+
+    /**
+     * Group of checks executed on a sampled fraction of responses.
+     */
+    private record SampledChecks(double rate, List<CheckBuilder> checks) {
     }
 
     // Convenience methods for common HTTP methods
@@ -0,0 +1,137 @@
+package gatling.builders;
+
+import gatling.enums.BodyMode;
+import gatling.enums.HttpMethod;
+import gatling.enums.ResponseBodyMode;
+import gatling.utils.StatsRegistry;
+import io.gatling.javaapi.core.ChainBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide registry of built chains, keyed by the full request specification.
+ * Identical specifications built by different simulations share one immutable ChainBuilder
+ * instead of rebuilding the same action graph. Custom checks and prebuilt bodies cannot be
+ * compared by value, so chains holding them are only shared under a caller-supplied cache key
+ * ({@code ChainBuilderFactory#withCacheKey}); without one they are built fresh and counted
+ * as bypassed.
+ */
+public final class ChainRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ChainRegistry.class);
+
+    static final String HITS = "chains.registry.hits";
+    static final String MISSES = "chains.registry.misses";
+    static final String BYPASSED = "chains.registry.bypassed";
+
+    private static final Map<ChainSpec, ChainBuilder> CHAINS = new ConcurrentHashMap<>();
+
+    private ChainRegistry() {
+        throw new UnsupportedOperationException("ChainRegistry is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Returns the chain registered for the given specification, building and registering it on first use.
+     *
+     * @param spec    The request specification
+     * @param builder Builds the chain on a miss
+     * @return the shared ChainBuilder
+     */
+    static ChainBuilder getOrBuild(ChainSpec spec, Supplier<ChainBuilder> builder) {
+        ChainBuilder cached = CHAINS.get(spec);
+        if (cached != null) {
+            StatsRegistry.increment(HITS);
+            logger.debug("Chain registry hit for chain: {}", spec.name());
+            return cached;
+        }
+        return CHAINS.computeIfAbsent(spec, key -> {
+            StatsRegistry.increment(MISSES);
+            logger.debug("Chain registry miss for chain: {}", key.name());
+            return builder.get();
+        });
+    }
+
+    /**
+     * Builds a chain that cannot be keyed by value without registering it.
+     *
+     * @param name    The chain name, for logging
+     * @param builder Builds the chain
+     * @return a new ChainBuilder
+     */
+    static ChainBuilder bypass(String name, Supplier<ChainBuilder> builder) {
+        StatsRegistry.increment(BYPASSED);
+        logger.debug("Chain registry bypassed for chain: {} (custom checks or body without a cache key)", name);
+        return builder.get();
+    }
+
+    /**
+     * Returns the number of builds served from the registry.
+     *
+     * @return hit count
+     */
+    public static long hits() {
+        return StatsRegistry.get(HITS);
+    }
+
+    /**
+     * Returns the number of builds that created a new chain.
+     *
+     * @return miss count
+     */
+    public static long misses() {
+        return StatsRegistry.get(MISSES);
+    }
+
+    /**
+     * Returns the number of builds that skipped the registry because the chain holds custom
+     * checks or a prebuilt body and has no cache key.
+     *
+     * @return bypass count
+     */
+    public static long bypassed() {
+        return StatsRegistry.get(BYPASSED);
+    }
+
+    /**
+     * Returns the number of distinct chains registered.
+     *
+     * @return registry size
+     */
+    public static int size() {
+        return CHAINS.size();
+    }
+
+    /**
+     * Removes all registered chains.
+     */
+    public static void clear() {
+        CHAINS.clear();
+        logger.debug("Chain registry cleared");
+    }
+
+    /**
+     * Full request specification used as the registry key.
+     * Body and check entries have value equality. Values without it (prebuilt bodies and
+     * CheckBuilder instances) are replaced by placeholders, and the caller-supplied cache key
+     * stands for them; specs holding such values are never registered without one.
+     */
+    record ChainSpec(
+        String name,
+        HttpMethod method,
+        String path,
+        Map<String, String> headers,
+        Object body,
+        BodyMode bodyMode,
+        ResponseBodyMode responseBodyMode,
+        Duration requestTimeout,
+        List<Object> checks,
+        List<ChainSpec> resources,
+        String cacheKey
+    ) {
+    }
+}
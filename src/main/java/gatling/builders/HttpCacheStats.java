@@ -0,0 +1,71 @@
+package gatling.builders;
+
+import gatling.utils.StatsRegistry;
+import io.gatling.http.response.Response;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records HTTP cache revalidation outcomes per chain: full responses, 304 Not Modified
+ * responses, and an estimate of the bytes saved by each 304 (the size of the last full
+ * response seen for that chain, taken from its Content-Length when present so it does not
+ * depend on the body being kept).
+ */
+public final class HttpCacheStats {
+
+    private static final Map<String, Long> LAST_FULL_LENGTH = new ConcurrentHashMap<>();
+
+    private HttpCacheStats() {
+        throw new UnsupportedOperationException("HttpCacheStats is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Records the outcome of a response for the given chain.
+     *
+     * @param chain    The chain (request) name
+     * @param response The received response
+     */
+    static void record(String chain, Response response) {
+        int status = response.status().code();
+        if (status == 304) {
+            StatsRegistry.increment(notModifiedCounter(chain));
+            StatsRegistry.add(savedBytesCounter(chain), LAST_FULL_LENGTH.getOrDefault(chain, 0L));
+        } else if (status >= 200 && status < 300) {
+            StatsRegistry.increment(fullCounter(chain));
+            LAST_FULL_LENGTH.put(chain, ChainBuilderFactory.wireLength(response));
+        }
+    }
+
+    /**
+     * Returns the number of 304 Not Modified responses recorded for a chain.
+     *
+     * @param chain The chain name
+     * @return 304 count
+     */
+    public static long notModified(String chain) {
+        return StatsRegistry.get(notModifiedCounter(chain));
+    }
+
+    /**
+     * Returns the estimated number of body bytes saved by revalidation for a chain.
+     *
+     * @param chain The chain name
+     * @return estimated saved bytes
+     */
+    public static long savedBytes(String chain) {
+        return StatsRegistry.get(savedBytesCounter(chain));
+    }
+
+    private static String notModifiedCounter(String chain) {
+        return "http.cache.notModified." + chain;
+    }
+
+    private static String savedBytesCounter(String chain) {
+        return "http.cache.savedBytes." + chain;
+    }
+
+    private static String fullCounter(String chain) {
+        return "http.cache.full." + chain;
+    }
+}
@@ -0,0 +1,320 @@
+package gatling.builders;
+
+import io.gatling.javaapi.core.Body;
+import io.gatling.javaapi.core.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.gatling.javaapi.core.CoreDsl.ByteArrayBody;
+
+/**
+ * Compiled JSON body template for {@code #{attribute}} placeholders.
+ * The template is split once into literal byte segments and session-attribute slots;
+ * rendering writes straight into a pooled per-thread buffer with JSON escaping,
+ * so no intermediate String graph is built per request.
+ */
+public final class JsonBodyTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(JsonBodyTemplate.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] NULL_LITERAL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final ThreadLocal<Sink> SINKS = ThreadLocal.withInitial(Sink::new);
+
+    private final String source;
+    private final byte[][] literals;
+    private final String[] attributes;
+    private final boolean[] quoted;
+    private final int literalLength;
+
+    private JsonBodyTemplate(String source, List<byte[]> literals, List<String> attributes, List<Boolean> quoted) {
+        this.source = source;
+        this.literals = literals.toArray(new byte[0][]);
+        this.attributes = attributes.toArray(new String[0]);
+        this.quoted = new boolean[quoted.size()];
+        for (int i = 0; i < quoted.size(); i++) {
+            this.quoted[i] = quoted.get(i);
+        }
+        this.literalLength = literals.stream().mapToInt(bytes -> bytes.length).sum();
+    }
+
+    /**
+     * Compiles a template string into literal segments and attribute slots.
+     * Placeholders inside a JSON string are escaped as string content; placeholders
+     * outside a string (numbers, booleans) are written as-is.
+     *
+     * @param template The template text
+     * @return the compiled template
+     * @throws IllegalArgumentException if the template is null or contains an unterminated or empty
+     *                                  placeholder, or a Gatling EL function or index such as
+     *                                  {@code #{x.random()}} or {@code #{x(0)}}, which only plain
+     *                                  attribute slots can render
+     */
+    public static JsonBodyTemplate compile(String template) {
+        if (template == null) {
+            String error = "Template must not be null";
+            logger.error(error);
+            throw new IllegalArgumentException(error);
+        }
+
+        List<byte[]> literals = new ArrayList<>();
+        List<String> attributes = new ArrayList<>();
+        List<Boolean> quoted = new ArrayList<>();
+
+        boolean inString = false;
+        int segmentStart = 0;
+        int i = 0;
+        while (i < template.length()) {
+            char c = template.charAt(i);
+            if (c == '#' && i + 1 < template.length() && template.charAt(i + 1) == '{') {
+                int end = template.indexOf('}', i + 2);
+                if (end < 0) {
+                    String error = "Unterminated placeholder at index " + i + " in template";
+                    logger.error(error);
+                    throw new IllegalArgumentException(error);
+                }
+                String attribute = template.substring(i + 2, end).trim();
+                if (attribute.isEmpty()) {
+                    String error = "Empty placeholder at index " + i + " in template";
+                    logger.error(error);
+                    throw new IllegalArgumentException(error);
+                }
+                if (attribute.indexOf('(') >= 0 || attribute.indexOf(')') >= 0) {
+                    String error = "Unsupported EL function or index '#{" + attribute + "}' at index " + i
+                            + " in template; only plain session attributes are supported";
+                    logger.error(error);
+                    throw new IllegalArgumentException(error);
+                }
+                literals.add(template.substring(segmentStart, i).getBytes(StandardCharsets.UTF_8));
+                attributes.add(attribute);
+                quoted.add(inString);
+                i = end + 1;
+                segmentStart = i;
+                continue;
+            }
+            if (c == '\\' && inString) {
+                i += 2;
+                continue;
+            }
+            if (c == '"') {
+                inString = !inString;
+            }
+            i++;
+        }
+        literals.add(template.substring(segmentStart).getBytes(StandardCharsets.UTF_8));
+
+        logger.debug("Compiled JSON body template with {} slot(s)", attributes.size());
+        return new JsonBodyTemplate(template, literals, attributes, quoted);
+    }
+
+    /**
+     * Loads and compiles a template from the classpath, e.g. {@code bodies/newGameTemplate.json}.
+     *
+     * @param resourcePath The classpath resource path
+     * @return the compiled template
+     * @throws IllegalArgumentException if the resource cannot be found or read
+     */
+    public static JsonBodyTemplate fromResource(String resourcePath) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try (InputStream in = loader.getResourceAsStream(resourcePath)) {
+            if (in == null) {
+                String error = "Template resource not found: " + resourcePath;
+                logger.error(error);
+                throw new IllegalArgumentException(error);
+            }
+            logger.info("Compiling JSON body template from resource: {}", resourcePath);
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            String error = "Failed to read template resource: " + resourcePath;
+            logger.error(error, e);
+            throw new IllegalArgumentException(error, e);
+        }
+    }
+
+    /**
+     * Renders the template for the given session.
+     *
+     * @param session The virtual user session providing attribute values
+     * @return the encoded request body
+     * @throws IllegalStateException if a referenced attribute is missing from the session
+     */
+    public byte[] render(Session session) {
+        Sink sink = SINKS.get();
+        sink.size = 0;
+
+        for (int slot = 0; slot < attributes.length; slot++) {
+            sink.write(literals[slot]);
+
+            String attribute = attributes[slot];
+            if (!session.contains(attribute)) {
+                throw new IllegalStateException("No attribute named '" + attribute + "' is defined");
+            }
+            Object value = session.get(attribute);
+            if (quoted[slot]) {
+                sink.writeChars(value == null ? "null" : value.toString(), true);
+            } else {
+                sink.writeRaw(value);
+            }
+        }
+        sink.write(literals[literals.length - 1]);
+
+        // The request is sent asynchronously, so the pooled buffer cannot be handed over.
+        byte[] rendered = Arrays.copyOf(sink.bytes, sink.size);
+        sink.trim();
+        return rendered;
+    }
+
+    /**
+     * Wraps this template as a Gatling Body rendered per request.
+     *
+     * @return a Body backed by {@link #render(Session)}
+     */
+    public Body asBody() {
+        return ByteArrayBody(this::render);
+    }
+
+    /**
+     * Returns the session attribute names referenced by this template, in order.
+     *
+     * @return list of attribute names
+     */
+    public List<String> getAttributes() {
+        return Collections.unmodifiableList(Arrays.asList(attributes));
+    }
+
+    /**
+     * Returns the total size of the literal segments, a lower bound for the rendered size.
+     *
+     * @return literal byte count
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * Growable per-thread byte buffer that encodes values without intermediate Strings.
+     */
+    private static final class Sink {
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int size;
+
+        void write(byte[] chunk) {
+            ensureCapacity(chunk.length);
+            System.arraycopy(chunk, 0, bytes, size, chunk.length);
+            size += chunk.length;
+        }
+
+        void writeRaw(Object value) {
+            if (value == null) {
+                write(NULL_LITERAL);
+            } else if (value instanceof Integer || value instanceof Long
+                    || value instanceof Short || value instanceof Byte) {
+                writeLong(((Number) value).longValue());
+            } else {
+                writeChars(value.toString(), false);
+            }
+        }
+
+        void writeLong(long value) {
+            if (value == Long.MIN_VALUE) {
+                writeChars(Long.toString(value), false);
+                return;
+            }
+            ensureCapacity(20);
+            if (value < 0) {
+                bytes[size++] = '-';
+                value = -value;
+            }
+            int start = size;
+            do {
+                bytes[size++] = (byte) ('0' + (value % 10));
+                value /= 10;
+            } while (value != 0);
+            for (int left = start, right = size - 1; left < right; left++, right--) {
+                byte tmp = bytes[left];
+                bytes[left] = bytes[right];
+                bytes[right] = tmp;
+            }
+        }
+
+        /**
+         * Encodes the characters as UTF-8, applying JSON string escaping when requested.
+         */
+        void writeChars(String value, boolean escape) {
+            // Worst case is a six-byte escape sequence per char, so reserve once up front.
+            ensureCapacity(value.length() * 6);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (escape && (c == '"' || c == '\\')) {
+                    bytes[size++] = '\\';
+                    bytes[size++] = (byte) c;
+                } else if (escape && c < 0x20) {
+                    bytes[size++] = '\\';
+                    switch (c) {
+                        case '\b' -> bytes[size++] = 'b';
+                        case '\f' -> bytes[size++] = 'f';
+                        case '\n' -> bytes[size++] = 'n';
+                        case '\r' -> bytes[size++] = 'r';
+                        case '\t' -> bytes[size++] = 't';
+                        default -> {
+                            bytes[size++] = 'u';
+                            bytes[size++] = '0';
+                            bytes[size++] = '0';
+                            bytes[size++] = HEX[c >> 4];
+                            bytes[size++] = HEX[c & 0xF];
+                        }
+                    }
+                } else if (c < 0x80) {
+                    bytes[size++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[size++] = (byte) (0xC0 | (c >> 6));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // A lone surrogate has no UTF-8 encoding; replace it like String.getBytes does.
+                    bytes[size++] = '?';
+                } else {
+                    bytes[size++] = (byte) (0xE0 | (c >> 12));
+                    bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    bytes[size++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        /**
+         * Drops oversized buffers so one large body does not pin memory on every thread.
+         */
+        void trim() {
+            if (bytes.length > MAX_POOLED_BUFFER_SIZE) {
+                bytes = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            int required = size + additional;
+            if (required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+            }
+        }
+    }
+}
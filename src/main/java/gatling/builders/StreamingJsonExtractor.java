@@ -0,0 +1,199 @@
+package gatling.builders;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.gatling.javaapi.core.CheckBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.gatling.javaapi.core.CoreDsl.bodyStream;
+
+/**
+ * Streaming JSON field extractor used as a lightweight alternative to jsonPath checks.
+ * The response is tokenized rather than parsed into a tree, and tokenizing stops as soon
+ * as every requested field has been found. Only simple object paths such as
+ * {@code $.accessToken} or {@code $.user.id} are supported.
+ */
+public final class StreamingJsonExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingJsonExtractor.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Pattern SIMPLE_PATH = Pattern.compile("^(\\$\\.)?[^.\\[\\]*?@()$]+(\\.[^.\\[\\]*?@()$]+)*$");
+
+    private StreamingJsonExtractor() {
+        throw new UnsupportedOperationException("StreamingJsonExtractor is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Returns whether the given JSON path can be handled by the streaming extractor.
+     *
+     * @param jsonPath The JSON path expression
+     * @return true for dot-separated object paths without wildcards, filters or array indexes
+     */
+    public static boolean isSimplePath(String jsonPath) {
+        return jsonPath != null && SIMPLE_PATH.matcher(jsonPath).matches();
+    }
+
+    /**
+     * Creates a check extracting a single field by streaming the response body.
+     *
+     * @param jsonPath The simple JSON path, e.g. {@code $.accessToken}
+     * @return a check that can be validated and saved like a jsonPath check
+     * @throws IllegalArgumentException if the path is not a simple path
+     */
+    public static CheckBuilder.Validate<String> field(String jsonPath) {
+        requireSimplePath(jsonPath);
+        String normalized = normalize(jsonPath);
+        List<String> paths = List.of(normalized);
+        return bodyStream().transform(in -> extract(in, paths).get(normalized));
+    }
+
+    /**
+     * Creates a check extracting several fields in a single pass over the response body.
+     * The extracted map is keyed by the normalized path (without the leading {@code $.}).
+     * The check yields no value unless every field is present. Paths may overlap, e.g.
+     * {@code $.user} and {@code $.user.id}: the enclosing object is returned as compact JSON
+     * and the nested fields are taken from that copy.
+     *
+     * @param jsonPaths The simple JSON paths to extract
+     * @return a check yielding a map of normalized path to value
+     * @throws IllegalArgumentException if any path is not a simple path
+     */
+    public static CheckBuilder.Validate<Map<String, String>> fields(List<String> jsonPaths) {
+        if (jsonPaths == null || jsonPaths.isEmpty()) {
+            String error = "At least one JSON path is required";
+            logger.error(error);
+            throw new IllegalArgumentException(error);
+        }
+        jsonPaths.forEach(StreamingJsonExtractor::requireSimplePath);
+        List<String> paths = jsonPaths.stream().map(StreamingJsonExtractor::normalize).distinct().toList();
+        return bodyStream().transform(in -> {
+            Map<String, String> values = extract(in, paths);
+            return values.size() == paths.size() ? values : null;
+        });
+    }
+
+    /**
+     * Tokenizes the JSON document and collects the requested fields, stopping as soon as
+     * all of them are found. Scalars are returned as their text, objects and arrays as
+     * compact JSON, and JSON null as a null value. When a requested path is also the
+     * parent of other requested paths, the nested values are extracted from its copied
+     * subtree, since the parser does not descend into a value it has already copied.
+     *
+     * @param in    The JSON document
+     * @param paths Normalized dot-separated paths
+     * @return map of path to value for the fields that were found
+     */
+    public static Map<String, String> extract(InputStream in, List<String> paths) {
+        Set<String> pending = paths.stream().collect(Collectors.toSet());
+        Map<String, String> found = new HashMap<>(paths.size() * 2);
+        Set<String> prefixes = prefixesOf(paths);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return found;
+            }
+            Deque<String> stack = new ArrayDeque<>();
+            String current = "";
+
+            JsonToken token;
+            while (!pending.isEmpty() && (token = parser.nextToken()) != null) {
+                if (token == JsonToken.END_OBJECT) {
+                    if (stack.isEmpty()) {
+                        break;
+                    }
+                    current = stack.pop();
+                    continue;
+                }
+                if (token != JsonToken.FIELD_NAME) {
+                    continue;
+                }
+
+                String path = current.isEmpty() ? parser.currentName() : current + "." + parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (pending.remove(path)) {
+                    String json = readValue(parser, value);
+                    found.put(path, json);
+                    if (value == JsonToken.START_OBJECT && prefixes.contains(path)) {
+                        extractNested(json, path, pending, found);
+                    }
+                } else if (value == JsonToken.START_OBJECT && prefixes.contains(path)) {
+                    stack.push(current);
+                    current = path;
+                } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream JSON response", e);
+        }
+        return found;
+    }
+
+    private static void extractNested(String json, String parent, Set<String> pending, Map<String, String> found) {
+        String prefix = parent + ".";
+        List<String> nested = pending.stream()
+                .filter(path -> path.startsWith(prefix))
+                .map(path -> path.substring(prefix.length()))
+                .toList();
+        extract(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), nested)
+                .forEach((path, value) -> found.put(prefix + path, value));
+        nested.forEach(path -> pending.remove(prefix + path));
+    }
+
+    private static String readValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return parser.getText();
+        }
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+    }
+
+    private static Set<String> prefixesOf(List<String> paths) {
+        return paths.stream()
+                .flatMap(path -> {
+                    String[] parts = path.split("\\.");
+                    return IntStream.range(1, parts.length)
+                            .mapToObj(i -> String.join(".", Arrays.copyOf(parts, i)));
+                })
+                .collect(Collectors.toSet());
+    }
+
+    private static String normalize(String jsonPath) {
+        return jsonPath.startsWith("$.") ? jsonPath.substring(2) : jsonPath;
+    }
+
+    private static void requireSimplePath(String jsonPath) {
+        if (!isSimplePath(jsonPath)) {
+            String error = "Unsupported JSON path for streaming extraction: " + jsonPath;
+            logger.error(error);
+            throw new IllegalArgumentException(error);
+        }
+    }
+}
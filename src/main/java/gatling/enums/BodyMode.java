@@ -0,0 +1,20 @@
+package gatling.enums;
+
+/**
+ * Enum representing how a request body is encoded when a chain is built.
+ */
+public enum BodyMode {
+    /**
+     * Uses Expression Language only when the body contains {@code #{...}} placeholders,
+     * otherwise encodes the body to bytes once.
+     */
+    AUTO,
+    /**
+     * Always evaluates the body as a Gatling Expression Language string.
+     */
+    EL,
+    /**
+     * Always encodes the body to UTF-8 bytes once and sends the same buffer for every request.
+     */
+    BYTES
+}
@@ -0,0 +1,28 @@
+package gatling.enums;
+
+/**
+ * Enum representing what {@code SimulationFactory.build()} does when the pre-flight estimate
+ * of an injection plan exceeds the injector's heap or connection budget.
+ */
+public enum BudgetPolicy {
+    /**
+     * Logs a warning and builds the simulation anyway.
+     */
+    WARN,
+    /**
+     * Refuses to build the simulation.
+     */
+    REFUSE;
+
+    public static BudgetPolicy fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("BudgetPolicy name must not be null or empty");
+        }
+        for (BudgetPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown BudgetPolicy: " + name);
+    }
+}
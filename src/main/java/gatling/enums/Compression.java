@@ -0,0 +1,24 @@
+package gatling.enums;
+
+/**
+ * Enum representing request body compression codecs and their Content-Encoding values.
+ */
+public enum Compression {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String contentEncoding;
+
+    Compression(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    @Override
+    public String toString() {
+        return contentEncoding;
+    }
+}
@@ -0,0 +1,33 @@
+package gatling.enums;
+
+/**
+ * Enum representing how virtual users are assigned to one of several base URLs
+ * configured on {@code HttpProtocolFactory}.
+ */
+public enum EndpointSelection {
+    /**
+     * Users take the endpoints in turn, ignoring weights.
+     */
+    ROUND_ROBIN,
+    /**
+     * Users take the endpoints in turn, each endpoint appearing in proportion to its weight.
+     */
+    WEIGHTED,
+    /**
+     * Users are mapped to an endpoint by a consistent hash of a session attribute, so the same
+     * key always lands on the same node and only a fraction of keys move when a node is added.
+     */
+    CONSISTENT_HASH;
+
+    public static EndpointSelection fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("EndpointSelection name must not be null or empty");
+        }
+        for (EndpointSelection selection : values()) {
+            if (selection.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return selection;
+            }
+        }
+        throw new IllegalArgumentException("Unknown EndpointSelection: " + name);
+    }
+}
@@ -0,0 +1,34 @@
+package gatling.enums;
+
+/**
+ * Enum representing how virtual users resolve host names in {@code HttpProtocolFactory}.
+ * In every mode each user shuffles the resolved address list, so users spread across
+ * all addresses of a host instead of piling onto the first one.
+ */
+public enum NameResolution {
+    /**
+     * Blocking JVM resolver, shared by all users and cached for {@code networkaddress.cache.ttl}.
+     */
+    JVM,
+    /**
+     * Non-blocking resolver shared by all users, caching each record for its DNS TTL.
+     */
+    ASYNC_SHARED,
+    /**
+     * Non-blocking resolver with one cache per virtual user, so each user pays for its
+     * own lookups like a fresh browser.
+     */
+    ASYNC_PER_USER;
+
+    public static NameResolution fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("NameResolution name must not be null or empty");
+        }
+        for (NameResolution resolution : values()) {
+            if (resolution.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown NameResolution: " + name);
+    }
+}
@@ -0,0 +1,32 @@
+package gatling.enums;
+
+/**
+ * Enum representing what {@code InFlightGuard} does with a new user arriving while the
+ * in-flight user limit is reached.
+ */
+public enum OverloadPolicy {
+    /**
+     * Sheds the arrival: the user ends immediately and is counted as shed.
+     */
+    DROP,
+    /**
+     * Holds the arrival until a slot frees up, shedding it after the queue timeout.
+     */
+    QUEUE,
+    /**
+     * Sheds the arrival and stops the run, marking it as failed.
+     */
+    ABORT;
+
+    public static OverloadPolicy fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("OverloadPolicy name must not be null or empty");
+        }
+        for (OverloadPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown OverloadPolicy: " + name);
+    }
+}
@@ -0,0 +1,30 @@
+package gatling.enums;
+
+/**
+ * Enum representing how {@code SimulationFactory} reports requests made during the
+ * warm-up and cool-down phases of a phased run. In both modes, phase responses are hidden
+ * from the protocol's response observers.
+ */
+public enum PhaseStats {
+    /**
+     * Reports them under a "warm-up" or "cool-down" group, so they are listed apart from
+     * measurement requests but still count towards global statistics.
+     */
+    TAG,
+    /**
+     * Leaves them out of the report entirely, so global statistics only cover the measurement phase.
+     */
+    EXCLUDE;
+
+    public static PhaseStats fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("PhaseStats name must not be null or empty");
+        }
+        for (PhaseStats stats : values()) {
+            if (stats.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return stats;
+            }
+        }
+        throw new IllegalArgumentException("Unknown PhaseStats: " + name);
+    }
+}
@@ -0,0 +1,20 @@
+package gatling.enums;
+
+/**
+ * Enum representing whether a chain keeps or discards response bodies.
+ */
+public enum ResponseBodyMode {
+    /**
+     * Discards the body when no registered check needs it, keeps it otherwise.
+     */
+    AUTO,
+    /**
+     * Always keeps the response body in memory.
+     */
+    KEEP,
+    /**
+     * Drains and discards the response body, counting bytes only.
+     * Building fails if a body-based check is registered.
+     */
+    DISCARD
+}
@@ -0,0 +1,31 @@
+package gatling.enums;
+
+/**
+ * Enum representing the line formats {@code TraceReplay} can read arrivals from.
+ */
+public enum TraceFormat {
+    /**
+     * Comma-separated lines starting with a timestamp, followed by the request path
+     * (optionally after the method), e.g. {@code 1718000000123,GET,/auth/me}.
+     * Timestamps are epoch seconds (fractions allowed), epoch milliseconds or ISO-8601 instants.
+     */
+    CSV,
+    /**
+     * Common or combined access log lines, e.g.
+     * {@code 10.0.0.1 - - [10/Oct/2025:13:55:36 +0000] "GET /auth/me HTTP/1.1" 200 512}.
+     * Timestamps have one-second resolution.
+     */
+    ACCESS_LOG;
+
+    public static TraceFormat fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("TraceFormat name must not be null or empty");
+        }
+        for (TraceFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown TraceFormat: " + name);
+    }
+}
@@ -0,0 +1,49 @@
+package gatling.enums;
+
+import lombok.Getter;
+
+/**
+ * Named connection pool presets for {@code HttpProtocolFactory}.
+ * A max of -1 connections per host means unlimited.
+ */
+@Getter
+public enum TransportPreset {
+    /**
+     * Each virtual user owns its connections, up to 6 per host, like a browser.
+     */
+    BROWSER_LIKE(false, 6, true),
+    /**
+     * All virtual users share one keep-alive pool, like a backend service client.
+     */
+    SHARED_POOL(true, 100, true),
+    /**
+     * One shared, unbounded keep-alive pool to remove connection churn and TLS handshakes
+     * from the measurement.
+     */
+    MAX_THROUGHPUT(true, -1, true);
+
+    private final boolean sharedConnections;
+    private final int maxConnectionsPerHost;
+    private final boolean keepAlive;
+
+    TransportPreset(boolean sharedConnections, int maxConnectionsPerHost, boolean keepAlive) {
+        if (maxConnectionsPerHost == 0 || maxConnectionsPerHost < -1) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be positive or -1: " + maxConnectionsPerHost);
+        }
+        this.sharedConnections = sharedConnections;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.keepAlive = keepAlive;
+    }
+
+    public static TransportPreset fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("TransportPreset name must not be null or empty");
+        }
+        for (TransportPreset preset : values()) {
+            if (preset.name().equalsIgnoreCase(name.trim().replace('-', '_'))) {
+                return preset;
+            }
+        }
+        throw new IllegalArgumentException("Unknown TransportPreset: " + name);
+    }
+}
@@ -0,0 +1,96 @@
+package gatling.stub;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of artificial response delays for {@link StubServer} routes.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draws the next delay.
+     *
+     * @return delay in nanoseconds, 0 for none
+     */
+    long nextNanos();
+
+    /**
+     * Responds immediately.
+     *
+     * @return a zero-delay distribution
+     */
+    static LatencyDistribution none() {
+        return () -> 0L;
+    }
+
+    /**
+     * Always waits the same amount.
+     *
+     * @param delay the delay
+     * @return a constant distribution
+     * @throws IllegalArgumentException if delay is null or negative
+     */
+    static LatencyDistribution fixed(Duration delay) {
+        long nanos = requireNonNegative(delay, "delay").toNanos();
+        return () -> nanos;
+    }
+
+    /**
+     * Waits a uniformly distributed time in [min, max].
+     *
+     * @param min lower bound
+     * @param max upper bound
+     * @return a uniform distribution
+     * @throws IllegalArgumentException if a bound is null or negative, or min exceeds max
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long low = requireNonNegative(min, "min").toNanos();
+        long high = requireNonNegative(max, "max").toNanos();
+        if (low > high) {
+            throw new IllegalArgumentException("min must not exceed max: " + min + " > " + max);
+        }
+        return () -> low == high ? low : ThreadLocalRandom.current().nextLong(low, high + 1);
+    }
+
+    /**
+     * Waits an exponentially distributed time, the service time of a memoryless server.
+     *
+     * @param mean the mean delay
+     * @return an exponential distribution
+     * @throws IllegalArgumentException if mean is null or negative
+     */
+    static LatencyDistribution exponential(Duration mean) {
+        double meanNanos = requireNonNegative(mean, "mean").toNanos();
+        return () -> (long) (-meanNanos * Math.log(1.0 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Waits a log-normally distributed time defined by its median and 99th percentile,
+     * which gives the long right tail typical of real service latencies.
+     *
+     * @param median the 50th percentile
+     * @param p99    the 99th percentile
+     * @return a log-normal distribution
+     * @throws IllegalArgumentException if median is not positive or p99 is below median
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        double medianNanos = requireNonNegative(median, "median").toNanos();
+        double p99Nanos = requireNonNegative(p99, "p99").toNanos();
+        if (medianNanos <= 0 || p99Nanos < medianNanos) {
+            throw new IllegalArgumentException("Log-normal latency requires 0 < median <= p99: " + median + ", " + p99);
+        }
+        double mu = Math.log(medianNanos);
+        // 2.326 is the z-score of the 99th percentile of the standard normal distribution.
+        double sigma = Math.log(p99Nanos / medianNanos) / 2.326;
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+
+    private static Duration requireNonNegative(Duration value, String name) {
+        if (value == null || value.isNegative()) {
+            throw new IllegalArgumentException(name + " must not be null or negative: " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,365 @@
+package gatling.stub;
+
+import gatling.enums.BasePath;
+import gatling.enums.HttpMethod;
+import gatling.utils.StatsRegistry;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Embedded HTTP/1.1 stub server serving canned responses for the {@link BasePath} endpoints.
+ * Requests are handled on Netty event loops and delays are scheduled rather than slept, so
+ * one small server can absorb far more load than a single load generator produces. Point a
+ * simulation at it with {@code new HttpProtocolFactory(BaseURI.DUMMY_JSON).useStub(server)}.
+ *
+ * <p>Routes match the exact path, or a trailing {@code *} segment such as
+ * {@code /api/videogame/*}. Unmatched requests get a 404 and are counted as
+ * {@code stub.notFound}; served requests are counted as {@code stub.requests}.
+ */
+public final class StubServer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(StubServer.class.getName());
+
+    private static final int MAX_CONTENT_LENGTH = 1024 * 1024;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private LatencyDistribution defaultLatency = LatencyDistribution.none();
+    private EventLoopGroup group;
+    private Channel channel;
+    private int port = -1;
+
+    /**
+     * Creates a stub server serving the DummyJSON auth flow ({@code /auth/*} and its {@code /user/*}
+     * aliases) and the video game API ({@code /api/authenticate}, {@code /api/videogame}).
+     * POST {@code /api/videogame} echoes the request body back.
+     *
+     * @return a configured, not yet started server
+     */
+    public static StubServer withDefaultRoutes() {
+        String user = "{\"id\":1,\"username\":\"emilys\",\"email\":\"emily.johnson@x.dummyjson.com\","
+                + "\"firstName\":\"Emily\",\"lastName\":\"Johnson\",\"gender\":\"female\",\"image\":\"https://dummyjson.com/icon/emilys/128\"";
+        String login = user + ",\"accessToken\":\"stub-access-token\",\"refreshToken\":\"stub-refresh-token\"}";
+        String game = "{\"id\":1,\"name\":\"Resident Evil 4\",\"releaseDate\":\"2005-10-01\","
+                + "\"reviewScore\":85,\"category\":\"Shooter\",\"rating\":\"Universal\"}";
+        String games = "[" + game + ",{\"id\":2,\"name\":\"Gran Turismo 3\",\"releaseDate\":\"2001-03-10\","
+                + "\"reviewScore\":91,\"category\":\"Driving\",\"rating\":\"Universal\"}]";
+
+        return new StubServer()
+                .route(HttpMethod.POST, BasePath.DUMMY_LOGIN, 200, login)
+                .route(HttpMethod.POST, BasePath.USER + "/login", 200, login)
+                .route(HttpMethod.GET, BasePath.DUMMY_USER, 200, user + "}")
+                .route(HttpMethod.GET, BasePath.USER + "/me", 200, user + "}")
+                .route(HttpMethod.POST, "/api/authenticate", 200, "{\"token\":\"stub-jwt-token\"}")
+                .route(HttpMethod.GET, BasePath.LIST_VIDEO_GAMES, 200, games)
+                .routeEcho(HttpMethod.POST, BasePath.LIST_VIDEO_GAMES.getPath(), 200)
+                .route(HttpMethod.GET, BasePath.LIST_VIDEO_GAMES + "/*", 200, game)
+                .route(HttpMethod.PUT, BasePath.LIST_VIDEO_GAMES + "/*", 200, game)
+                .route(HttpMethod.DELETE, BasePath.LIST_VIDEO_GAMES + "/*", 200, "Video game deleted");
+    }
+
+    /**
+     * Registers a canned response for a BasePath endpoint.
+     *
+     * @param method HTTP method
+     * @param path   endpoint path
+     * @param status response status code
+     * @param body   response body; JSON bodies are served as application/json, others as text/plain
+     * @return this instance for fluent API
+     */
+    public StubServer route(HttpMethod method, BasePath path, int status, String body) {
+        return route(method, path.getPath(), status, body, null);
+    }
+
+    /**
+     * Registers a canned response.
+     *
+     * @param method HTTP method
+     * @param path   exact path, or a path ending in {@code /*}
+     * @param status response status code
+     * @param body   response body; JSON bodies are served as application/json, others as text/plain
+     * @return this instance for fluent API
+     */
+    public StubServer route(HttpMethod method, String path, int status, String body) {
+        return route(method, path, status, body, null);
+    }
+
+    /**
+     * Registers a canned response with its own latency distribution.
+     *
+     * @param method  HTTP method
+     * @param path    exact path, or a path ending in {@code /*}
+     * @param status  response status code
+     * @param body    response body; JSON bodies are served as application/json, others as text/plain
+     * @param latency delay before responding, or null for the server default
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if method, path or body is invalid
+     */
+    public StubServer route(HttpMethod method, String path, int status, String body, LatencyDistribution latency) {
+        if (body == null) {
+            LOGGER.severe("Stub route body must not be null.");
+            throw new IllegalArgumentException("Stub route body must not be null.");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String trimmed = body.stripLeading();
+        String contentType = trimmed.startsWith("{") || trimmed.startsWith("[")
+                ? HttpHeaderValues.APPLICATION_JSON.toString()
+                : HttpHeaderValues.TEXT_PLAIN + "; charset=UTF-8";
+        return addRoute(method, path, new Route(HttpResponseStatus.valueOf(status), bytes, contentType, false, latency));
+    }
+
+    /**
+     * Registers a route that answers with the request body and content type.
+     *
+     * @param method HTTP method
+     * @param path   exact path, or a path ending in {@code /*}
+     * @param status response status code
+     * @return this instance for fluent API
+     */
+    public StubServer routeEcho(HttpMethod method, String path, int status) {
+        return addRoute(method, path, new Route(HttpResponseStatus.valueOf(status), null, null, true, null));
+    }
+
+    /**
+     * Sets the delay applied to routes registered without their own latency.
+     *
+     * @param latency the default latency distribution
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if latency is null
+     */
+    public StubServer defaultLatency(LatencyDistribution latency) {
+        if (latency == null) {
+            LOGGER.severe("Default latency must not be null.");
+            throw new IllegalArgumentException("Default latency must not be null.");
+        }
+        this.defaultLatency = latency;
+        return this;
+    }
+
+    /**
+     * Sets the delay for every route already registered for a BasePath, across all methods,
+     * including the {@code <path>/*} wildcard routes beneath it.
+     *
+     * @param path    endpoint path
+     * @param latency the latency distribution
+     * @return this instance for fluent API
+     */
+    public StubServer latency(BasePath path, LatencyDistribution latency) {
+        String exact = " " + path.getPath();
+        String wildcard = exact + "/*";
+        routes.replaceAll((key, route) -> key.endsWith(exact) || key.endsWith(wildcard)
+                ? route.withLatency(latency)
+                : route);
+        return this;
+    }
+
+    /**
+     * Starts the server on an ephemeral loopback port.
+     *
+     * @return this instance for fluent API
+     */
+    public StubServer start() {
+        return start(0);
+    }
+
+    /**
+     * Starts the server on the given loopback port, using one event loop per available core.
+     *
+     * @param port the port, or 0 for an ephemeral one
+     * @return this instance for fluent API
+     * @throws IllegalStateException if the server is already running or cannot bind
+     */
+    public synchronized StubServer start(int port) {
+        if (channel != null) {
+            throw new IllegalStateException("Stub server already running on port " + this.port);
+        }
+        group = new MultiThreadIoEventLoopGroup(NioIoHandler.newFactory());
+        try {
+            channel = new ServerBootstrap()
+                    .group(group)
+                    .channel(NioServerSocketChannel.class)
+                    .option(ChannelOption.SO_BACKLOG, 1024)
+                    .childOption(ChannelOption.TCP_NODELAY, true)
+                    .childHandler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            ch.pipeline()
+                                    .addLast(new HttpServerCodec())
+                                    .addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH))
+                                    .addLast(new StubHandler());
+                        }
+                    })
+                    .bind("127.0.0.1", port)
+                    .sync()
+                    .channel();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            group.shutdownGracefully();
+            throw new IllegalStateException("Interrupted while starting stub server", e);
+        } catch (RuntimeException e) {
+            group.shutdownGracefully();
+            throw new IllegalStateException("Failed to start stub server on port " + port, e);
+        }
+        this.port = ((InetSocketAddress) channel.localAddress()).getPort();
+        LOGGER.info("Stub server started at " + getBaseUrl() + " with " + routes.size() + " route(s)");
+        return this;
+    }
+
+    /**
+     * Returns the bound port.
+     *
+     * @return the port, or -1 when not started
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Returns the base URL to send requests to.
+     *
+     * @return e.g. {@code http://127.0.0.1:54321}
+     * @throws IllegalStateException if the server is not started
+     */
+    public String getBaseUrl() {
+        if (port < 0) {
+            throw new IllegalStateException("Stub server is not started.");
+        }
+        return "http://127.0.0.1:" + port;
+    }
+
+    /**
+     * Stops the server and releases its event loops.
+     */
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        channel.close().syncUninterruptibly();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        channel = null;
+        LOGGER.info("Stub server on port " + port + " stopped");
+        port = -1;
+    }
+
+    private StubServer addRoute(HttpMethod method, String path, Route route) {
+        if (method == null || path == null || !path.startsWith("/")) {
+            String msg = "Stub route requires a method and a path starting with '/': " + method + " " + path;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        routes.put(method.getValue() + " " + path, route);
+        LOGGER.fine("Stub route registered: " + method + " " + path);
+        return this;
+    }
+
+    private Route match(String method, String path) {
+        Route route = routes.get(method + " " + path);
+        if (route == null) {
+            int slash = path.lastIndexOf('/');
+            if (slash > 0) {
+                route = routes.get(method + " " + path.substring(0, slash) + "/*");
+            }
+        }
+        return route;
+    }
+
+    /**
+     * A canned response; echo routes answer with the request body instead.
+     */
+    private record Route(HttpResponseStatus status, byte[] body, String contentType, boolean echo,
+                         LatencyDistribution latency) {
+
+        Route withLatency(LatencyDistribution latency) {
+            return new Route(status, body, contentType, echo, latency);
+        }
+    }
+
+    private final class StubHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+            String path = new QueryStringDecoder(request.uri()).path();
+            Route route = match(request.method().name(), path);
+            boolean keepAlive = HttpUtil.isKeepAlive(request);
+
+            FullHttpResponse response;
+            long delayNanos = 0;
+            if (route == null) {
+                StatsRegistry.increment("stub.notFound");
+                response = response(HttpResponseStatus.NOT_FOUND, Unpooled.EMPTY_BUFFER, null);
+            } else {
+                StatsRegistry.increment("stub.requests");
+                ByteBuf body = route.echo()
+                        ? request.content().retainedDuplicate()
+                        : Unpooled.wrappedBuffer(route.body());
+                String contentType = route.echo()
+                        ? request.headers().get(HttpHeaderNames.CONTENT_TYPE)
+                        : route.contentType();
+                response = response(route.status(), body, contentType);
+                delayNanos = (route.latency() != null ? route.latency() : defaultLatency).nextNanos();
+            }
+            if (keepAlive) {
+                HttpUtil.setKeepAlive(response, true);
+            }
+
+            if (delayNanos > 0) {
+                ctx.executor().schedule(() -> write(ctx, response, keepAlive), delayNanos, TimeUnit.NANOSECONDS);
+            } else {
+                write(ctx, response, keepAlive);
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            LOGGER.fine("Closing stub connection after error: " + cause.getMessage());
+            ctx.close();
+        }
+
+        private FullHttpResponse response(HttpResponseStatus status, ByteBuf body, String contentType) {
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, body);
+            if (contentType != null) {
+                response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+            }
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, body.readableBytes());
+            return response;
+        }
+
+        private void write(ChannelHandlerContext ctx, FullHttpResponse response, boolean keepAlive) {
+            if (keepAlive) {
+                ctx.writeAndFlush(response, ctx.voidPromise());
+            } else {
+                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package gatling.utils;
+
+import io.gatling.http.response.Response;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.OpenInjectionStep;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Closed-loop load controller that adjusts the iteration rate while the simulation runs to hold
+ * a p99 latency target given to the constructor, e.g. 800 ms to match {@code charting.indicators.lowerBound}.
+ *
+ * <p>Gatling injection profiles are fixed before the run, so the rate is steered through admission:
+ * a fixed pool of {@link #workers(int) workers} loops over the chains, and each iteration first
+ * reserves the next free slot on a shared schedule spaced {@code 1 / rate} seconds apart. Workers
+ * only reserve slots due within the next poll tick and otherwise wait a tick and retry, so a rate
+ * change takes effect within {@value #POLL_MILLIS} ms instead of after queued reservations.
+ * Every {@link #window(Duration) window} the controller reads the p99 and 5xx rate of the responses observed through {@link HttpProtocolFactory#observeResponses},
+ * then applies additive increase / multiplicative decrease:
+ * above target or error limit, the rate is cut by the backoff factor; comfortably below target
+ * (under 80% of it), the rate grows by the increase step; otherwise it holds.
+ * Every decision is kept in the {@link #getTrajectory() trajectory}.
+ *
+ * <pre>{@code
+ * AdaptiveLoadController controller = new AdaptiveLoadController(Duration.ofMillis(800))
+ *         .rates(5, 1, 200).workers(400);
+ * // protocol: observeResponses(controller::record)
+ * // scenario: execChain(controller.loop(Duration.ofMinutes(10), login, getUser))
+ * // injection: injectOpen(controller.injection()), then controller.stop() in after()
+ * }</pre>
+ *
+ * Workers only bound concurrency; the pool must be large enough for the highest rate:
+ * {@code workers >= maxRate * iteration time}.
+ */
+public final class AdaptiveLoadController {
+
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveLoadController.class.getName());
+
+    private static final double HEADROOM = 0.8;
+    private static final int MIN_SAMPLES = 20;
+    private static final long POLL_MILLIS = 50;
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS);
+    private static final String SLOT_WAIT = "adaptiveLoadController.slotWait";
+
+    private final long p99TargetMillis;
+    private double maxErrorRate = 0.01;
+    private double minRate = 1;
+    private double maxRate = 100;
+    private double increase = 1;
+    private double backoff = 0.75;
+    private int workers = 100;
+    private Duration window = Duration.ofSeconds(10);
+
+    private volatile double rate = 1;
+    private final AtomicReference<Window> current = new AtomicReference<>(new Window());
+    private final List<Sample> trajectory = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextSlot = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+    private long startNanos;
+
+    /**
+     * Creates a controller holding the given p99 target.
+     *
+     * @param p99Target the 99th percentile response time to stay below
+     * @throws IllegalArgumentException if p99Target is null or not positive
+     */
+    public AdaptiveLoadController(Duration p99Target) {
+        if (p99Target == null || p99Target.isNegative() || p99Target.isZero()) {
+            String msg = "p99 target must be positive: " + p99Target;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.p99TargetMillis = p99Target.toMillis();
+        LOGGER.info("Initialized adaptive load controller with p99 target " + p99TargetMillis + " ms.");
+    }
+
+    /**
+     * Sets the initial iteration rate and its bounds, in iterations per second.
+     *
+     * @param initial starting rate
+     * @param min     lowest rate the controller backs off to
+     * @param max     highest rate the controller climbs to
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException unless 0 < min <= initial <= max
+     */
+    public AdaptiveLoadController rates(double initial, double min, double max) {
+        if (min <= 0 || initial < min || max < initial) {
+            String msg = String.format("Invalid controller rates: initial=%.2f, min=%.2f, max=%.2f", initial, min, max);
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.rate = initial;
+        this.minRate = min;
+        this.maxRate = max;
+        return this;
+    }
+
+    /**
+     * Sets the AIMD steps.
+     *
+     * @param increase iterations/sec added per window while under target
+     * @param backoff  multiplier applied when over target, in (0, 1)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if increase is not positive or backoff is outside (0, 1)
+     */
+    public AdaptiveLoadController steps(double increase, double backoff) {
+        if (increase <= 0 || backoff <= 0 || backoff >= 1) {
+            String msg = String.format("Invalid controller steps: increase=%.2f, backoff=%.2f", increase, backoff);
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.increase = increase;
+        this.backoff = backoff;
+        return this;
+    }
+
+    /**
+     * Sets the highest tolerated share of 5xx responses per window.
+     *
+     * @param maxErrorRate error rate in [0, 1]
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if the rate is out of range
+     */
+    public AdaptiveLoadController errorRateLimit(double maxErrorRate) {
+        if (maxErrorRate < 0 || maxErrorRate > 1) {
+            String msg = "Error rate limit must be in [0, 1]: " + maxErrorRate;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.maxErrorRate = maxErrorRate;
+        return this;
+    }
+
+    /**
+     * Sets the size of the looping user pool.
+     *
+     * @param workers number of concurrent users
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if workers <= 0
+     */
+    public AdaptiveLoadController workers(int workers) {
+        if (workers <= 0) {
+            String msg = "Worker count must be positive: " + workers;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Sets how often the rate is re-evaluated.
+     *
+     * @param window evaluation interval, at least one second
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if window is null or shorter than one second
+     */
+    public AdaptiveLoadController window(Duration window) {
+        if (window == null || window.compareTo(Duration.ofSeconds(1)) < 0) {
+            String msg = "Controller window must be at least one second: " + window;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * Returns the injection starting the worker pool at once.
+     *
+     * @return configured OpenInjectionStep
+     */
+    public OpenInjectionStep injection() {
+        return LoadProfileFactory.spike(workers);
+    }
+
+    /**
+     * Wraps the chains in a rate-controlled loop lasting the given duration.
+     *
+     * @param duration how long each worker keeps looping
+     * @param chains   the chains making up one iteration
+     * @return the controlled chain
+     * @throws IllegalArgumentException if duration is not positive or no chain is given
+     */
+    public ChainBuilder loop(Duration duration, ChainBuilder... chains) {
+        if (duration == null || duration.isNegative() || duration.isZero() || chains == null || chains.length == 0) {
+            String msg = "Controlled loop requires a positive duration and at least one chain.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        ChainBuilder iteration = exec(session -> session.set(SLOT_WAIT, reserveSlot()))
+                .asLongAs(session -> session.getLong(SLOT_WAIT) < 0).on(
+                        pause(Duration.ofMillis(POLL_MILLIS))
+                                .exec(session -> session.set(SLOT_WAIT, reserveSlot())))
+                .pause(session -> Duration.ofNanos(session.getLong(SLOT_WAIT)));
+        for (ChainBuilder chain : chains) {
+            iteration = iteration.exec(chain);
+        }
+        return exec(session -> {
+            start();
+            return session;
+        }).exec(during(duration).on(iteration));
+    }
+
+    /**
+     * Records a response into the current window. Intended as a response observer.
+     *
+     * @param response the HTTP response
+     */
+    public void record(Response response) {
+        Window window = current.get();
+        window.latencies.record(response.endTimestamp() - response.startTimestamp());
+        if (response.status().code() >= 500) {
+            window.errors.increment();
+        }
+    }
+
+    /**
+     * Starts the control loop. Called automatically when the first worker enters {@link #loop}.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "adaptive-load-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = window.toMillis();
+        scheduler.scheduleAtFixedRate(this::adjust, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Adaptive load controller started at " + rate + " iterations/sec with " + workers + " workers.");
+    }
+
+    /**
+     * Stops the control loop and logs the rate trajectory.
+     */
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        logTrajectory();
+    }
+
+    /**
+     * Returns the current target rate.
+     *
+     * @return iterations per second
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Returns every control decision taken so far, in order.
+     *
+     * @return unmodifiable list of samples
+     */
+    public List<Sample> getTrajectory() {
+        return Collections.unmodifiableList(trajectory);
+    }
+
+    /**
+     * Logs the rate trajectory, one line per window.
+     */
+    public void logTrajectory() {
+        StringBuilder report = new StringBuilder("Adaptive load trajectory (p99 target " + p99TargetMillis + " ms):");
+        for (Sample sample : trajectory) {
+            report.append(System.lineSeparator()).append(String.format(
+                    "  t=%ds: %d responses, p99=%dms, errors=%.2f%% -> rate %.2f/s",
+                    sample.elapsedSeconds(), sample.responses(), sample.p99Millis(),
+                    sample.errorRate() * 100, sample.rate()));
+        }
+        LOGGER.info(report.toString());
+    }
+
+    /**
+     * Reserves the next slot on the shared schedule if it falls within the next poll tick.
+     * Slots never start in the past, so an idle period does not cause a catch-up burst.
+     *
+     * @return nanoseconds to wait for the reserved slot, or -1 if no slot is due yet
+     */
+    private long reserveSlot() {
+        long interval = (long) (1_000_000_000L / rate);
+        long now = System.nanoTime();
+        while (true) {
+            long previous = nextSlot.get();
+            long slot = previous == Long.MIN_VALUE || previous - now < 0 ? now : previous;
+            if (slot - now > POLL_NANOS) {
+                return -1;
+            }
+            if (nextSlot.compareAndSet(previous, slot + interval)) {
+                return slot - now;
+            }
+        }
+    }
+
+    private void adjust() {
+        Window closed = current.getAndSet(new Window());
+        long responses = closed.latencies.count();
+        long p99 = closed.latencies.percentile(99);
+        double errorRate = responses == 0 ? 0 : (double) closed.errors.sum() / responses;
+
+        double next = rate;
+        if (responses >= MIN_SAMPLES) {
+            if (p99 > p99TargetMillis || errorRate > maxErrorRate) {
+                next = Math.max(minRate, rate * backoff);
+            } else if (p99 < p99TargetMillis * HEADROOM) {
+                next = Math.min(maxRate, rate + increase);
+            }
+        }
+        rate = next;
+
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+        trajectory.add(new Sample(elapsedSeconds, responses, p99, errorRate, next));
+        LOGGER.fine("Controller window: " + responses + " responses, p99=" + p99 + "ms, errors="
+                + errorRate + " -> rate " + next);
+    }
+
+    /**
+     * One control decision.
+     *
+     * @param elapsedSeconds seconds since the controller started
+     * @param responses      responses observed in the window
+     * @param p99Millis      99th percentile response time of the window
+     * @param errorRate      share of 5xx responses in the window
+     * @param rate           iteration rate chosen for the next window
+     */
+    public record Sample(long elapsedSeconds, long responses, long p99Millis, double errorRate, double rate) {
+    }
+
+    private static final class Window {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
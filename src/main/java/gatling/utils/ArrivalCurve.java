@@ -0,0 +1,372 @@
+package gatling.utils;
+
+import io.gatling.javaapi.core.OpenInjectionStep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.DoubleUnaryOperator;
+import java.util.logging.Logger;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Arrival rate curve, in users/sec over time, compiled into a compact open injection profile.
+ * Instead of one step per second, {@link #compile(Duration)} approximates the curve with linear
+ * ramps: it starts from a single ramp over the whole run and keeps splitting the segment that
+ * deviates most from the curve, until every segment is within the {@link #tolerance(double) tolerance}
+ * or the {@link #stepBudget(int) step budget} is spent. A day-long diurnal soak typically needs
+ * a few dozen steps instead of 86,400.
+ *
+ * <pre>{@code
+ * OpenInjectionStep[] day = LoadProfileFactory.arrivalCurve(
+ *         ArrivalCurve.diurnal(5, 80, Duration.ofHours(24), Duration.ofHours(14)).poisson(),
+ *         24 * 3600);
+ * }</pre>
+ *
+ * By default users arrive at evenly spaced intervals; {@link #poisson()} randomizes them into a
+ * Poisson process following the same rate, which reproduces the natural burstiness of
+ * independent clients.
+ */
+public final class ArrivalCurve {
+
+    private static final Logger LOGGER = Logger.getLogger(ArrivalCurve.class.getName());
+
+    private static final int SAMPLES_PER_SEGMENT = 64;
+    private static final long MIN_SEGMENT_MILLIS = 1_000;
+
+    private final DoubleUnaryOperator rateAt;
+    private final double[] breakpoints;
+    private boolean poisson;
+    private int stepBudget = 64;
+    private double tolerance = 0.02;
+
+    private ArrivalCurve(DoubleUnaryOperator rateAt, double[] breakpoints) {
+        this.rateAt = rateAt;
+        this.breakpoints = breakpoints;
+    }
+
+    /**
+     * Creates a flat curve; combined with {@link #poisson()} it is a homogeneous Poisson process.
+     *
+     * @param usersPerSec the arrival rate
+     * @return the curve
+     * @throws IllegalArgumentException if usersPerSec is negative
+     */
+    public static ArrivalCurve constant(double usersPerSec) {
+        requireRate(usersPerSec);
+        return new ArrivalCurve(t -> usersPerSec, new double[0]);
+    }
+
+    /**
+     * Creates a sinusoidal day/night curve oscillating between a trough and a peak.
+     *
+     * @param troughUsersPerSec lowest rate, reached half a period away from the peak
+     * @param peakUsersPerSec   highest rate
+     * @param period            length of one cycle, e.g. 24 hours
+     * @param peakAt            offset from the start of the run at which the peak occurs
+     * @return the curve
+     * @throws IllegalArgumentException if a rate is negative, trough exceeds peak, period is not positive
+     *                                  or peakAt is null or negative
+     */
+    public static ArrivalCurve diurnal(double troughUsersPerSec, double peakUsersPerSec,
+                                       Duration period, Duration peakAt) {
+        requireRate(troughUsersPerSec);
+        requireRate(peakUsersPerSec);
+        if (troughUsersPerSec > peakUsersPerSec || period == null || period.toMillis() <= 0
+                || peakAt == null || peakAt.isNegative()) {
+            String msg = "Invalid diurnal curve: trough=" + troughUsersPerSec + ", peak=" + peakUsersPerSec
+                    + ", period=" + period + ", peakAt=" + peakAt;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        double mean = (peakUsersPerSec + troughUsersPerSec) / 2;
+        double amplitude = (peakUsersPerSec - troughUsersPerSec) / 2;
+        double periodSeconds = period.toMillis() / 1000.0;
+        double peakSeconds = peakAt.toMillis() / 1000.0;
+        return new ArrivalCurve(
+                t -> mean + amplitude * Math.cos(2 * Math.PI * (t - peakSeconds) / periodSeconds),
+                new double[0]);
+    }
+
+    /**
+     * Creates a curve interpolated linearly between points, holding the last rate after the last point.
+     * Before the first point the curve holds the first rate.
+     *
+     * @param points the points, in strictly increasing time order
+     * @return the curve
+     * @throws IllegalArgumentException if no point is given, a point is null,
+     *                                  or the points are not strictly increasing in time
+     */
+    public static ArrivalCurve piecewise(Point... points) {
+        if (points == null || points.length == 0) {
+            String msg = "Piecewise curve requires at least one point.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        double[] times = new double[points.length];
+        double[] rates = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null || (i > 0 && points[i].at().compareTo(points[i - 1].at()) <= 0)) {
+                String msg = "Piecewise curve points must be non-null and strictly increasing in time: "
+                        + Arrays.toString(points);
+                LOGGER.severe(msg);
+                throw new IllegalArgumentException(msg);
+            }
+            times[i] = points[i].at().toMillis() / 1000.0;
+            rates[i] = points[i].usersPerSec();
+        }
+        return new ArrivalCurve(t -> interpolate(times, rates, t), times);
+    }
+
+    /**
+     * Creates a point for {@link #piecewise(Point...)}.
+     *
+     * @param at          offset from the start of the run
+     * @param usersPerSec the rate at that offset
+     * @return the point
+     * @throws IllegalArgumentException if at is null or negative, or usersPerSec is negative
+     */
+    public static Point point(Duration at, double usersPerSec) {
+        return new Point(at, usersPerSec);
+    }
+
+    /**
+     * Creates a curve from an arbitrary rate function. Negative rates are treated as 0.
+     *
+     * @param usersPerSecAt rate as a function of seconds since the start of the run
+     * @return the curve
+     * @throws IllegalArgumentException if the function is null
+     */
+    public static ArrivalCurve of(DoubleUnaryOperator usersPerSecAt) {
+        if (usersPerSecAt == null) {
+            String msg = "Arrival curve function must not be null.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        return new ArrivalCurve(usersPerSecAt, new double[0]);
+    }
+
+    /**
+     * Returns a copy of this curve with every rate multiplied by the factor, keeping the
+     * Poisson setting, step budget and tolerance. Used to split a global rate across a workload mix.
+     *
+     * @param factor rate multiplier, not negative
+     * @return the scaled curve
+     * @throws IllegalArgumentException if factor is negative
+     */
+    public ArrivalCurve scaled(double factor) {
+        if (factor < 0 || Double.isNaN(factor) || Double.isInfinite(factor)) {
+            String msg = "Scale factor must be a non-negative number: " + factor;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        DoubleUnaryOperator original = rateAt;
+        ArrivalCurve copy = new ArrivalCurve(t -> factor * original.applyAsDouble(t), breakpoints);
+        copy.poisson = poisson;
+        copy.stepBudget = stepBudget;
+        copy.tolerance = tolerance;
+        return copy;
+    }
+
+    /**
+     * Randomizes arrivals into a Poisson process following the curve, instead of evenly spaced users.
+     *
+     * @return this instance for fluent API
+     */
+    public ArrivalCurve poisson() {
+        this.poisson = true;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of injection steps the curve compiles to.
+     *
+     * @param steps step budget, at least 1 (default 64)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if steps < 1
+     */
+    public ArrivalCurve stepBudget(int steps) {
+        if (steps < 1) {
+            String msg = "Step budget must be at least 1: " + steps;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.stepBudget = steps;
+        return this;
+    }
+
+    /**
+     * Sets the largest accepted deviation between the compiled ramps and the curve,
+     * as a fraction of the curve's peak rate.
+     *
+     * @param tolerance relative error in (0, 1) (default 0.02)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if tolerance is outside (0, 1)
+     */
+    public ArrivalCurve tolerance(double tolerance) {
+        if (tolerance <= 0 || tolerance >= 1) {
+            String msg = "Tolerance must be in (0, 1): " + tolerance;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Compiles the curve over the given duration into linear ramp steps.
+     * If the budget runs out before the tolerance is met, the best approximation within
+     * the budget is returned and the achieved error is logged as a warning.
+     *
+     * @param duration length of the run
+     * @return the injection steps
+     * @throws IllegalArgumentException if duration is null or shorter than one second
+     */
+    public OpenInjectionStep[] compile(Duration duration) {
+        if (duration == null || duration.toMillis() < MIN_SEGMENT_MILLIS) {
+            String msg = "Arrival curve duration must be at least one second: " + duration;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        long totalMillis = duration.toMillis();
+        double peak = 0;
+        for (int i = 0; i <= SAMPLES_PER_SEGMENT * stepBudget; i++) {
+            peak = Math.max(peak, rate(totalMillis * (double) i / (SAMPLES_PER_SEGMENT * stepBudget)));
+        }
+        for (double breakpoint : breakpoints) {
+            peak = Math.max(peak, rate(Math.min(totalMillis, breakpoint * 1000)));
+        }
+        double allowed = tolerance * peak;
+
+        PriorityQueue<Segment> worstFirst = new PriorityQueue<>(Comparator.comparingDouble(Segment::error).reversed());
+        worstFirst.add(segment(0, totalMillis));
+        List<Segment> done = new ArrayList<>();
+        while (!worstFirst.isEmpty() && done.size() + worstFirst.size() < stepBudget) {
+            Segment worst = worstFirst.poll();
+            if (worst.error() <= allowed || worst.splitAt() < 0) {
+                done.add(worst);
+                continue;
+            }
+            worstFirst.add(segment(worst.startMillis(), worst.splitAt()));
+            worstFirst.add(segment(worst.splitAt(), worst.endMillis()));
+        }
+        done.addAll(worstFirst);
+        done.sort(Comparator.comparingLong(Segment::startMillis));
+
+        double error = done.stream().mapToDouble(Segment::error).max().orElse(0);
+        OpenInjectionStep[] steps = done.stream().map(this::toStep).toArray(OpenInjectionStep[]::new);
+        String summary = "Compiled arrival curve over " + totalMillis / 1000 + " seconds into " + steps.length
+                + " step(s), max deviation " + String.format("%.2f", error) + " users/sec (peak "
+                + String.format("%.2f", peak) + ").";
+        if (error > allowed) {
+            LOGGER.warning(summary + " Step budget of " + stepBudget + " exhausted before reaching tolerance "
+                    + tolerance + "; raise the budget or the tolerance.");
+        } else {
+            LOGGER.info(summary);
+        }
+        return steps;
+    }
+
+    private double rate(double millis) {
+        return Math.max(0, rateAt.applyAsDouble(millis / 1000.0));
+    }
+
+    /**
+     * Fits a linear ramp between the curve's values at both ends and locates its worst deviation,
+     * checking evenly spaced samples and any breakpoints inside the segment.
+     */
+    private Segment segment(long startMillis, long endMillis) {
+        double from = rate(startMillis);
+        double to = rate(endMillis);
+        double error = 0;
+        long splitAt = -1;
+        boolean splittable = endMillis - startMillis >= 2 * MIN_SEGMENT_MILLIS;
+        long length = endMillis - startMillis;
+        for (int i = 1; i < SAMPLES_PER_SEGMENT; i++) {
+            long at = startMillis + length * i / SAMPLES_PER_SEGMENT;
+            double deviation = Math.abs(rate(at) - (from + (to - from) * (at - startMillis) / length));
+            if (deviation > error) {
+                error = deviation;
+                splitAt = at;
+            }
+        }
+        for (double breakpoint : breakpoints) {
+            long at = Math.round(breakpoint * 1000);
+            if (at > startMillis && at < endMillis) {
+                double deviation = Math.abs(rate(at) - (from + (to - from) * (at - startMillis) / length));
+                if (deviation > error) {
+                    error = deviation;
+                    splitAt = at;
+                }
+            }
+        }
+        if (splittable) {
+            // Keep both halves at least MIN_SEGMENT_MILLIS long, rounded to whole seconds.
+            splitAt = Math.round(splitAt / 1000.0) * 1000;
+            splitAt = Math.max(startMillis + MIN_SEGMENT_MILLIS, Math.min(endMillis - MIN_SEGMENT_MILLIS, splitAt));
+        } else {
+            splitAt = -1;
+        }
+        return new Segment(startMillis, endMillis, from, to, error, splitAt);
+    }
+
+    private OpenInjectionStep toStep(Segment segment) {
+        Duration length = Duration.ofMillis(segment.endMillis() - segment.startMillis());
+        if (segment.from() == 0 && segment.to() == 0) {
+            return nothingFor(length);
+        }
+        if (segment.from() == segment.to()) {
+            return poisson
+                    ? constantUsersPerSec(segment.from()).during(length).randomized()
+                    : constantUsersPerSec(segment.from()).during(length);
+        }
+        return poisson
+                ? rampUsersPerSec(segment.from()).to(segment.to()).during(length).randomized()
+                : rampUsersPerSec(segment.from()).to(segment.to()).during(length);
+    }
+
+    private static double interpolate(double[] times, double[] rates, double t) {
+        if (t <= times[0]) {
+            return rates[0];
+        }
+        for (int i = 1; i < times.length; i++) {
+            if (t <= times[i]) {
+                return rates[i - 1] + (rates[i] - rates[i - 1]) * (t - times[i - 1]) / (times[i] - times[i - 1]);
+            }
+        }
+        return rates[rates.length - 1];
+    }
+
+    private static void requireRate(double usersPerSec) {
+        if (usersPerSec < 0 || Double.isNaN(usersPerSec) || Double.isInfinite(usersPerSec)) {
+            String msg = "Arrival rate must be a non-negative number: " + usersPerSec;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * A rate at an offset from the start of the run, for {@link #piecewise(Point...)}.
+     *
+     * @param at          offset from the start of the run
+     * @param usersPerSec the rate at that offset
+     */
+    public record Point(Duration at, double usersPerSec) {
+
+        public Point {
+            if (at == null || at.isNegative()) {
+                String msg = "Point offset must not be null or negative: " + at;
+                LOGGER.severe(msg);
+                throw new IllegalArgumentException(msg);
+            }
+            requireRate(usersPerSec);
+        }
+    }
+
+    private record Segment(long startMillis, long endMillis, double from, double to, double error, long splitAt) {
+    }
+}
@@ -0,0 +1,252 @@
+package gatling.utils;
+
+import io.gatling.http.response.Response;
+import io.gatling.javaapi.core.OpenInjectionStep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Automated capacity search over a {@link LoadProfileFactory#staircase staircase} profile.
+ * Responses are collected per plateau through {@link HttpProtocolFactory#observeResponses},
+ * and {@link #analyze()} reports each level's throughput, p95 and p99, the highest level that
+ * still met the SLO, and the knee where latency started climbing.
+ *
+ * <pre>{@code
+ * CapacitySearch search = new CapacitySearch(5, 8, 60, 10, 10)
+ *         .slo(Duration.ofMillis(300), Duration.ofMillis(800), 0.01);
+ * HttpProtocolBuilder protocol = new HttpProtocolFactory(BaseURI.DUMMY_JSON)
+ *         .observeResponses(search::record).build();
+ * // injectOpen(search.profile()), then search.analyze().log() in after()
+ * }</pre>
+ *
+ * Levels are timed from the start of the first recorded request. Only responses that start
+ * within a plateau are counted, so ramps are excluded. Responses with a 5xx status count as errors.
+ */
+public final class CapacitySearch {
+
+    private static final Logger LOGGER = Logger.getLogger(CapacitySearch.class.getName());
+
+    /**
+     * Smallest p95 increase treated as a knee, so sub-millisecond noise on fast endpoints is ignored.
+     */
+    private static final long KNEE_MIN_DELTA_MILLIS = 5;
+
+    private final int increment;
+    private final int levels;
+    private final int levelSeconds;
+    private final int rampSeconds;
+    private final int startingFrom;
+    private final LatencyHistogram[] histograms;
+    private final LongAdder[] errors;
+    private final AtomicLong startMillis = new AtomicLong(-1);
+
+    private long p95SloMillis = Long.MAX_VALUE;
+    private long p99SloMillis = Long.MAX_VALUE;
+    private double maxErrorRate = 1.0;
+    private double kneeFactor = 1.5;
+
+    /**
+     * Creates a capacity search with the same staircase parameters as
+     * {@link LoadProfileFactory#staircase(int, int, int, int, int)}.
+     *
+     * @param increment    users/sec added per level
+     * @param levels       number of plateaus
+     * @param levelSeconds duration of each plateau
+     * @param rampSeconds  duration of the ramp between plateaus, 0 to jump
+     * @param startingFrom users/sec of the first level, at least 1
+     * @throws IllegalArgumentException for invalid staircase parameters
+     */
+    public CapacitySearch(int increment, int levels, int levelSeconds, int rampSeconds, int startingFrom) {
+        if (increment <= 0 || levels <= 0 || levelSeconds <= 0 || rampSeconds < 0 || startingFrom <= 0) {
+            String msg = String.format("Invalid capacity search: increment=%d, levels=%d, level=%ds, ramp=%ds, from=%d",
+                    increment, levels, levelSeconds, rampSeconds, startingFrom);
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.increment = increment;
+        this.levels = levels;
+        this.levelSeconds = levelSeconds;
+        this.rampSeconds = rampSeconds;
+        this.startingFrom = startingFrom;
+        this.histograms = new LatencyHistogram[levels];
+        this.errors = new LongAdder[levels];
+        for (int i = 0; i < levels; i++) {
+            histograms[i] = new LatencyHistogram();
+            errors[i] = new LongAdder();
+        }
+        LOGGER.info("Initialized capacity search over " + levels + " level(s) from " + startingFrom
+                + " to " + targetRate(levels - 1) + " users/sec.");
+    }
+
+    /**
+     * Sets the service level objective a level must meet to count as sustained.
+     *
+     * @param p95          maximum 95th percentile response time
+     * @param p99          maximum 99th percentile response time
+     * @param maxErrorRate maximum share of 5xx responses, in [0, 1]
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if a percentile is null or negative, or the error rate is out of range
+     */
+    public CapacitySearch slo(Duration p95, Duration p99, double maxErrorRate) {
+        if (p95 == null || p99 == null || p95.isNegative() || p99.isNegative()
+                || maxErrorRate < 0 || maxErrorRate > 1) {
+            String msg = "Invalid SLO: p95=" + p95 + ", p99=" + p99 + ", maxErrorRate=" + maxErrorRate;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.p95SloMillis = p95.toMillis();
+        this.p99SloMillis = p99.toMillis();
+        this.maxErrorRate = maxErrorRate;
+        LOGGER.fine("Capacity SLO set to p95<=" + p95SloMillis + "ms, p99<=" + p99SloMillis
+                + "ms, errors<=" + maxErrorRate);
+        return this;
+    }
+
+    /**
+     * Sets how much the p95 must grow over the best earlier level to mark the knee.
+     *
+     * @param factor growth factor, greater than 1 (default 1.5)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if factor is not greater than 1
+     */
+    public CapacitySearch kneeFactor(double factor) {
+        if (factor <= 1) {
+            String msg = "Knee factor must be greater than 1: " + factor;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.kneeFactor = factor;
+        return this;
+    }
+
+    /**
+     * Returns the staircase injection profile matching this search.
+     *
+     * @return configured OpenInjectionStep
+     */
+    public OpenInjectionStep profile() {
+        return LoadProfileFactory.staircase(increment, levels, levelSeconds, rampSeconds, startingFrom);
+    }
+
+    /**
+     * Records a response into the plateau it started in. Intended as a response observer.
+     *
+     * @param response the HTTP response
+     */
+    public void record(Response response) {
+        long start = response.startTimestamp();
+        startMillis.compareAndSet(-1, start);
+        long offset = start - startMillis.get();
+        if (offset < 0) {
+            return;
+        }
+        long periodMillis = (levelSeconds + rampSeconds) * 1000L;
+        int level = (int) (offset / periodMillis);
+        if (level >= levels || offset % periodMillis >= levelSeconds * 1000L) {
+            return;
+        }
+        histograms[level].record(response.endTimestamp() - start);
+        if (response.status().code() >= 500) {
+            errors[level].increment();
+        }
+    }
+
+    /**
+     * Evaluates every level against the SLO and locates the capacity and the knee.
+     *
+     * @return the analysis result
+     */
+    public Result analyze() {
+        List<LevelResult> results = new ArrayList<>(levels);
+        LevelResult capacity = null;
+        LevelResult knee = null;
+        boolean sustained = true;
+        long bestP95 = Long.MAX_VALUE;
+
+        for (int i = 0; i < levels; i++) {
+            LatencyHistogram histogram = histograms[i];
+            long requests = histogram.count();
+            long errorCount = errors[i].sum();
+            long p95 = histogram.percentile(95);
+            long p99 = histogram.percentile(99);
+            double errorRate = requests == 0 ? 0 : (double) errorCount / requests;
+            boolean withinSlo = requests > 0 && p95 <= p95SloMillis && p99 <= p99SloMillis
+                    && errorRate <= maxErrorRate;
+
+            LevelResult result = new LevelResult(i + 1, targetRate(i), requests, errorCount,
+                    (double) requests / levelSeconds, p95, p99, withinSlo);
+            results.add(result);
+
+            sustained &= withinSlo;
+            if (sustained) {
+                capacity = result;
+            }
+            if (requests == 0) {
+                continue;
+            }
+            if (knee == null && bestP95 != Long.MAX_VALUE
+                    && p95 > bestP95 * kneeFactor && p95 - bestP95 >= KNEE_MIN_DELTA_MILLIS) {
+                knee = result;
+            }
+            bestP95 = Math.min(bestP95, p95);
+        }
+        return new Result(Collections.unmodifiableList(results), capacity, knee);
+    }
+
+    private int targetRate(int level) {
+        return startingFrom + level * increment;
+    }
+
+    /**
+     * Measurements for one plateau.
+     *
+     * @param level              level number, from 1
+     * @param targetUsersPerSec  injected arrival rate
+     * @param requests           responses that started during the plateau
+     * @param errors             5xx responses among them
+     * @param throughput         requests per second over the plateau
+     * @param p95Millis          95th percentile response time
+     * @param p99Millis          99th percentile response time
+     * @param withinSlo          whether the level met the SLO
+     */
+    public record LevelResult(int level, int targetUsersPerSec, long requests, long errors,
+                              double throughput, long p95Millis, long p99Millis, boolean withinSlo) {
+    }
+
+    /**
+     * Outcome of a capacity search.
+     *
+     * @param levels   results for every level, in order
+     * @param capacity the highest level of the uninterrupted run of levels meeting the SLO, or null
+     * @param knee     the first level whose p95 rose past the knee factor, or null
+     */
+    public record Result(List<LevelResult> levels, LevelResult capacity, LevelResult knee) {
+
+        /**
+         * Logs one line per level followed by the capacity and knee.
+         */
+        public void log() {
+            StringBuilder report = new StringBuilder("Capacity search results:");
+            for (LevelResult level : levels) {
+                report.append(System.lineSeparator()).append(String.format(
+                        "  level %d: %d users/sec -> %.1f rps, p95=%dms, p99=%dms, errors=%d/%d %s",
+                        level.level(), level.targetUsersPerSec(), level.throughput(), level.p95Millis(),
+                        level.p99Millis(), level.errors(), level.requests(), level.withinSlo() ? "OK" : "SLO MISSED"));
+            }
+            report.append(System.lineSeparator()).append("  capacity: ").append(capacity == null
+                    ? "no level met the SLO"
+                    : "level " + capacity.level() + " (" + capacity.targetUsersPerSec() + " users/sec, "
+                    + String.format("%.1f", capacity.throughput()) + " rps)");
+            report.append(System.lineSeparator()).append("  knee: ").append(knee == null
+                    ? "not reached"
+                    : "level " + knee.level() + " (" + knee.targetUsersPerSec() + " users/sec)");
+            LOGGER.info(report.toString());
+        }
+    }
+}
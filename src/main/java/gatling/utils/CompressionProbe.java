@@ -0,0 +1,93 @@
+package gatling.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Measures compressed versus decoded response size for one URL outside of any measured request.
+ * Gatling decodes compressed responses before checks see them and drops their Content-Length,
+ * so wire sizes are not available per response; this fetches the raw bytes once instead.
+ */
+final class CompressionProbe {
+
+    private static final Logger LOGGER = Logger.getLogger(CompressionProbe.class.getName());
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private CompressionProbe() {
+        throw new UnsupportedOperationException("CompressionProbe is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Sends one GET with the given headers (which should advertise Accept-Encoding) and decodes
+     * the body locally. Results are recorded in {@link StatsRegistry} as
+     * {@code http.compression.probe.wireBytes}, {@code http.compression.probe.decodedBytes} and
+     * {@code http.compression.probe.encoding.<encoding>}; an uncompressed answer is recorded with
+     * encoding {@code identity} and equal sizes.
+     *
+     * <p>Connect and request are each bounded to 5 seconds. Failures are logged and counted as
+     * {@code http.compression.probe.failures}; they never fail the caller.
+     *
+     * @param url     the URL to probe
+     * @param headers request headers to send
+     */
+    static void probe(String url, Map<String, String> headers) {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET();
+        headers.forEach(request::header);
+
+        try {
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            byte[] wire = response.body();
+            String encoding = response.headers().firstValue("Content-Encoding").orElse("identity").trim().toLowerCase();
+            long decoded = decodedLength(wire, encoding);
+            StatsRegistry.add("http.compression.probe.wireBytes", wire.length);
+            StatsRegistry.add("http.compression.probe.decodedBytes", decoded);
+            StatsRegistry.increment("http.compression.probe.encoding." + encoding);
+            LOGGER.info("Compression probe of " + url + " (status " + response.statusCode() + "): " + encoding
+                    + ", " + wire.length + " wire bytes, " + decoded + " decoded bytes");
+        } catch (IOException | RuntimeException e) {
+            StatsRegistry.increment("http.compression.probe.failures");
+            LOGGER.warning("Compression probe of " + url + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            StatsRegistry.increment("http.compression.probe.failures");
+            LOGGER.warning("Compression probe of " + url + " interrupted.");
+        }
+    }
+
+    /**
+     * Returns the decoded size of a body sent with the given Content-Encoding.
+     *
+     * @throws IOException if the encoding is unsupported or the body is corrupt
+     */
+    private static long decodedLength(byte[] wire, String encoding) throws IOException {
+        InputStream decoder = switch (encoding) {
+            case "identity" -> null;
+            case "gzip", "x-gzip" -> new GZIPInputStream(new ByteArrayInputStream(wire));
+            case "deflate" -> new InflaterInputStream(new ByteArrayInputStream(wire));
+            default -> throw new IOException("Unsupported Content-Encoding: " + encoding);
+        };
+        if (decoder == null) {
+            return wire.length;
+        }
+        try (InputStream in = decoder) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
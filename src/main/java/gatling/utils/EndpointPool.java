@@ -0,0 +1,104 @@
+package gatling.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Weighted set of base URLs with the assignment orders used by {@link HttpProtocolFactory}:
+ * a plain rotation, a smooth weighted rotation, and a consistent hash ring.
+ */
+final class EndpointPool {
+
+    private static final Logger LOGGER = Logger.getLogger(EndpointPool.class.getName());
+
+    /**
+     * Ring points per unit of weight; enough to keep the key spread within a few percent.
+     */
+    private static final int VIRTUAL_NODES = 160;
+
+    private final Map<String, Integer> weights;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    EndpointPool(Map<String, Integer> weights) {
+        if (weights == null || weights.isEmpty()) {
+            LOGGER.severe("Endpoint pool must contain at least one endpoint.");
+            throw new IllegalArgumentException("Endpoint pool must contain at least one endpoint.");
+        }
+        this.weights = Collections.unmodifiableMap(new LinkedHashMap<>(weights));
+        this.weights.forEach((url, weight) -> {
+            for (int i = 0; i < weight * VIRTUAL_NODES; i++) {
+                ring.put(hash(url + "#" + i), url);
+            }
+        });
+        LOGGER.fine("Endpoint pool created with weights: " + this.weights);
+    }
+
+    /**
+     * Returns every endpoint once, in insertion order.
+     *
+     * @return endpoint URLs
+     */
+    List<String> roundRobinOrder() {
+        return List.copyOf(weights.keySet());
+    }
+
+    /**
+     * Returns one full cycle of a smooth weighted rotation: each endpoint appears as many times
+     * as its weight, interleaved so that heavy endpoints do not receive consecutive bursts.
+     *
+     * @return endpoint URLs, one entry per assignment in the cycle
+     */
+    List<String> weightedOrder() {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        Map<String, Integer> current = new LinkedHashMap<>();
+        weights.keySet().forEach(url -> current.put(url, 0));
+
+        List<String> order = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            String selected = null;
+            for (Map.Entry<String, Integer> entry : current.entrySet()) {
+                int value = entry.getValue() + weights.get(entry.getKey());
+                entry.setValue(value);
+                if (selected == null || value > current.get(selected)) {
+                    selected = entry.getKey();
+                }
+            }
+            current.put(selected, current.get(selected) - total);
+            order.add(selected);
+        }
+        return order;
+    }
+
+    /**
+     * Maps a key onto the hash ring.
+     *
+     * @param key the routing key, e.g. a user id
+     * @return the endpoint owning the key
+     */
+    String lookup(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
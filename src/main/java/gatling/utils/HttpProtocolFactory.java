@@ -1,15 +1,35 @@
 package gatling.utils;
 
 import gatling.enums.BaseURI;
+import gatling.enums.EndpointSelection;
+import gatling.enums.NameResolution;
+import gatling.enums.TransportPreset;
+import gatling.stub.StubServer;
 import io.gatling.javaapi.http.HttpDsl;
+import io.gatling.http.client.uri.Uri;
+import io.gatling.http.response.Response;
+import io.gatling.javaapi.core.ChainBuilder;
 import io.gatling.javaapi.http.HttpProtocolBuilder;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import lombok.Getter;
 
+import javax.net.ssl.KeyManagerFactory;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
+import static io.gatling.javaapi.core.CoreDsl.exec;
+
 /**
  * Factory class for constructing and configuring an HttpProtocolBuilder instance
  * for use in Gatling performance simulations.
@@ -18,9 +38,38 @@ public class HttpProtocolFactory {
 
     private static final Logger LOGGER = Logger.getLogger(HttpProtocolFactory.class.getName());
 
+    /**
+     * Session attribute in which Gatling keeps the base URL assigned to a user.
+     */
+    private static final String BASE_URL_ATTRIBUTE = "gatling.http.cache.baseUrl";
+
+    /**
+     * Session attribute naming the warm-up or cool-down phase a user belongs to; measurement users lack it.
+     */
+    static final String PHASE_ATTRIBUTE = "simulation.phase";
+
     @Getter
-    private final String baseUrl;
+    private String baseUrl;
     private final Map<String, String> headers = new HashMap<>();
+    private boolean httpCacheDisabled;
+    private boolean compressedResponses;
+    private boolean sharedConnections;
+    private int maxConnectionsPerHost = -1;
+    private boolean keepAlive = true;
+    private boolean http2Enabled;
+    private final Map<String, Boolean> http2PriorKnowledge = new HashMap<>();
+    private final List<Consumer<Response>> responseObservers = new ArrayList<>();
+    private NameResolution nameResolution = NameResolution.JVM;
+    private String[] dnsServers = new String[0];
+    private final Map<String, List<String>> hostAliases = new HashMap<>();
+    private boolean dnsStartupProbe;
+    private final Map<String, Integer> endpointWeights = new LinkedHashMap<>();
+    private EndpointSelection endpointSelection = EndpointSelection.ROUND_ROBIN;
+    private String endpointHashKey;
+    private Function<Long, KeyManagerFactory> perUserKeyManagerFactory;
+    private int tlsHandshakeSamples;
+    private String compressionProbePath;
+    private boolean stubInUse;
     private HttpProtocolBuilder builder;
 
     /**
@@ -40,6 +89,31 @@ public class HttpProtocolFactory {
         LOGGER.info("Initialized HttpProtocolFactory with baseUrl: " + baseUrl);
     }
 
+    /**
+     * Points this protocol at a running embedded stub server instead of the BaseURI, for runs
+     * without network access or for measuring the load generator's own ceiling.
+     * Must be called before any {@link #endpoint(String, int)}.
+     *
+     * @param server a started StubServer
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if server is null or not started
+     */
+    public HttpProtocolFactory useStub(StubServer server) {
+        if (server == null || server.getPort() < 0) {
+            LOGGER.severe("Stub server must be started before use.");
+            throw new IllegalArgumentException("Stub server must be started before use.");
+        }
+        if (!endpointWeights.isEmpty()) {
+            LOGGER.warning("Endpoint pool already configured; the stub replaces only the primary base URL.");
+            endpointWeights.remove(baseUrl);
+            endpointWeights.put(server.getBaseUrl(), 1);
+        }
+        this.baseUrl = server.getBaseUrl();
+        this.stubInUse = true;
+        LOGGER.info("Base URL overridden by stub server: " + baseUrl);
+        return this;
+    }
+
     /**
      * Applies the default headers (Accept, Content-Type).
      */
@@ -95,6 +169,410 @@ public class HttpProtocolFactory {
         return this;
     }
 
+    /**
+     * Disables Gatling's per-virtual-user HTTP cache emulation so every request is sent in full.
+     * The cache is on by default: each user stores ETag and Last-Modified validators (and honours
+     * Cache-Control/Expires), then sends later GETs as conditional requests with
+     * If-None-Match/If-Modified-Since. The per-user cache is an LRU bounded by
+     * {@code gatling.http.perUserCacheMaxCapacity} in gatling.conf.
+     *
+     * @return this instance for fluent API
+     */
+    public HttpProtocolFactory disableHttpCache() {
+        this.httpCacheDisabled = true;
+        LOGGER.fine("Per-user HTTP cache disabled.");
+        return this;
+    }
+
+    /**
+     * Advertises gzip/deflate support with an Accept-Encoding header and records, in
+     * {@link StatsRegistry}, {@code http.compression.response.count} and
+     * {@code http.compression.response.decodedBytes} for compressed responses, and
+     * {@code http.compression.response.identity} for the others. Gatling decodes responses
+     * before any check sees them and drops their Content-Length, so compressed sizes are not
+     * available per response; use {@link #measureResponseCompression(String)} for a wire
+     * versus decoded comparison.
+     *
+     * @return this instance for fluent API
+     */
+    public HttpProtocolFactory acceptCompressedResponses() {
+        if (!compressedResponses) {
+            responseObservers.add(HttpProtocolFactory::recordCompression);
+        }
+        this.compressedResponses = true;
+        headers.put("Accept-Encoding", "gzip, deflate");
+        LOGGER.fine("Accept-Encoding header set to: gzip, deflate");
+        return this;
+    }
+
+    /**
+     * Fetches one path of the base URL when the protocol is built, outside any measured request,
+     * and records its compressed and decoded sizes under {@code http.compression.probe.*} in
+     * {@link StatsRegistry}. The probe sends this protocol's headers, so it implies
+     * {@link #acceptCompressedResponses()}. A failed probe is logged and counted without failing
+     * the build.
+     *
+     * @param path path of a representative GET endpoint, e.g. {@code /api/videogame}
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if path is blank or does not start with a slash
+     */
+    public HttpProtocolFactory measureResponseCompression(String path) {
+        if (path == null || !path.startsWith("/")) {
+            String msg = "Compression probe path must start with '/': " + path;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        acceptCompressedResponses();
+        this.compressionProbePath = path;
+        LOGGER.fine("Response compression probe enabled for path: " + path);
+        return this;
+    }
+
+    /**
+     * Applies a named connection pool preset. Individual options set afterwards override it.
+     *
+     * @param preset the transport preset
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if preset is null
+     */
+    public HttpProtocolFactory transportPreset(TransportPreset preset) {
+        if (preset == null) {
+            LOGGER.severe("TransportPreset must not be null.");
+            throw new IllegalArgumentException("TransportPreset must not be null.");
+        }
+        this.sharedConnections = preset.isSharedConnections();
+        this.maxConnectionsPerHost = preset.getMaxConnectionsPerHost();
+        this.keepAlive = preset.isKeepAlive();
+        LOGGER.fine("Transport preset applied: " + preset);
+        return this;
+    }
+
+    /**
+     * Shares one connection pool across all virtual users instead of one pool per user.
+     * Suited to modelling service-to-service clients and to avoiding per-user TLS handshakes.
+     * This also sets the SSL context scope: per-user pools give each user its own SSL context
+     * and session cache (TLS sessions are only resumed within a user), while a shared pool
+     * uses one engine-wide context.
+     *
+     * @param shared true for a shared pool, false for per-user connections
+     * @return this instance for fluent API
+     */
+    public HttpProtocolFactory sharedConnections(boolean shared) {
+        this.sharedConnections = shared;
+        LOGGER.fine("Shared connections set to: " + shared);
+        return this;
+    }
+
+    /**
+     * Caps concurrent connections per remote host.
+     *
+     * @param max the maximum, or -1 for unlimited
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if max is 0 or below -1
+     */
+    public HttpProtocolFactory maxConnectionsPerHost(int max) {
+        if (max == 0 || max < -1) {
+            String msg = "maxConnectionsPerHost must be positive or -1: " + max;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.maxConnectionsPerHost = max;
+        LOGGER.fine("Max connections per host set to: " + max);
+        return this;
+    }
+
+    /**
+     * Enables or disables connection keep-alive. When disabled, every request is sent with
+     * {@code Connection: close} so each one pays for a new connection (and TLS handshake).
+     * Pool idle and default request timeouts are engine-wide settings
+     * ({@code gatling.http.pooledConnectionIdleTimeout} and {@code gatling.http.requestTimeout}
+     * in gatling.conf); per-request timeouts are set on {@code ChainBuilderFactory}.
+     *
+     * @param enabled true to reuse connections
+     * @return this instance for fluent API
+     */
+    public HttpProtocolFactory keepAlive(boolean enabled) {
+        this.keepAlive = enabled;
+        LOGGER.fine("Keep-alive set to: " + enabled);
+        return this;
+    }
+
+    /**
+     * Enables HTTP/2. Over TLS the protocol is negotiated with ALPN, and each virtual user
+     * multiplexes concurrent requests on one connection per host, within the server's
+     * SETTINGS_MAX_CONCURRENT_STREAMS limit (Gatling has no client-side stream cap).
+     * The protocol each request actually used is counted per request name in {@link StatsRegistry}
+     * as {@code http.protocol.h1.<request>} and {@code http.protocol.h2.<request>}.
+     *
+     * @return this instance for fluent API
+     */
+    public HttpProtocolFactory enableHttp2() {
+        if (!http2Enabled) {
+            responseObservers.add(HttpProtocolFactory::recordHttpVersion);
+        }
+        this.http2Enabled = true;
+        LOGGER.fine("HTTP/2 enabled.");
+        return this;
+    }
+
+    /**
+     * Declares whether a remote supports HTTP/2, skipping ALPN negotiation for it.
+     * Remotes declared false are always contacted over HTTP/1.1.
+     *
+     * @param hostAndPort    remote as {@code host:port}, e.g. {@code dummyjson.com:443}
+     * @param supportsHttp2  whether the remote speaks HTTP/2
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if hostAndPort is blank or missing a port
+     */
+    public HttpProtocolFactory http2PriorKnowledge(String hostAndPort, boolean supportsHttp2) {
+        if (hostAndPort == null || hostAndPort.isBlank() || !hostAndPort.contains(":")) {
+            String msg = "HTTP/2 prior knowledge requires host:port, got: " + hostAndPort;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        enableHttp2();
+        http2PriorKnowledge.put(hostAndPort, supportsHttp2);
+        LOGGER.fine("HTTP/2 prior knowledge: " + hostAndPort + " = " + supportsHttp2);
+        return this;
+    }
+
+    /**
+     * Selects how virtual users resolve host names. The JVM resolver caches lookups for
+     * {@code networkaddress.cache.ttl} (30 seconds by default); the async resolvers cache each
+     * record for its own DNS TTL. Query timeout and retries are engine-wide settings
+     * ({@code gatling.http.dns} in gatling.conf).
+     *
+     * @param resolution the resolution mode
+     * @param dnsServers DNS servers for the async modes as {@code host[:port]}; system servers when empty
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if resolution is null, or DNS servers are given for the JVM resolver
+     */
+    public HttpProtocolFactory nameResolution(NameResolution resolution, String... dnsServers) {
+        if (resolution == null) {
+            LOGGER.severe("NameResolution must not be null.");
+            throw new IllegalArgumentException("NameResolution must not be null.");
+        }
+        String[] servers = dnsServers == null ? new String[0] : dnsServers;
+        if (resolution == NameResolution.JVM && servers.length > 0) {
+            String msg = "DNS servers can only be set for async name resolution.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.nameResolution = resolution;
+        this.dnsServers = servers.clone();
+        LOGGER.fine("Name resolution set to: " + resolution + " with DNS servers: " + Arrays.toString(servers));
+        return this;
+    }
+
+    /**
+     * Pins a host name to fixed IP addresses, bypassing DNS for it, e.g. to target one node
+     * behind a load balancer. Addresses are tried in the given order, falling back to the next
+     * one on connect failure.
+     *
+     * @param host      host name as used in request URLs
+     * @param addresses one or more IP addresses
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if host is blank or no address is given
+     */
+    public HttpProtocolFactory hostAlias(String host, String... addresses) {
+        if (host == null || host.isBlank() || addresses == null || addresses.length == 0
+                || Arrays.stream(addresses).anyMatch(address -> address == null || address.isBlank())) {
+            String msg = "Host alias requires a host and at least one address, got: " + host;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        hostAliases.put(host, List.of(addresses));
+        LOGGER.fine("Host alias added: " + host + " -> " + Arrays.toString(addresses));
+        return this;
+    }
+
+    /**
+     * Runs a startup DNS probe: the base URL host is resolved once when the protocol is built,
+     * before any user starts. The lookup time is recorded in {@link StatsRegistry} as
+     * {@code dns.probe.nanos.<host>} and the number of addresses as {@code dns.probe.addresses.<host>},
+     * so resolver latency can be read separately from request latency. With the JVM resolver this
+     * also warms its cache, so the first users do not pay for the lookup inside their response times.
+     *
+     * <p>This is a single startup measurement: lookups made by users during the run are not timed,
+     * and the probe does not change how long results are cached. The JVM resolver keeps them for
+     * {@code networkaddress.cache.ttl} (set in the JDK's java.security file, or through
+     * {@code -Dsun.net.inetaddr.ttl}); the async resolvers keep each record for its own DNS TTL.
+     *
+     * @return this instance for fluent API
+     */
+    public HttpProtocolFactory dnsStartupProbe() {
+        this.dnsStartupProbe = true;
+        LOGGER.fine("Startup DNS probe enabled.");
+        return this;
+    }
+
+    /**
+     * Adds a base URL to the endpoint pool, e.g. one node of a horizontally scaled service.
+     * The constructor's base URL is the first endpoint, with weight 1 unless added again here.
+     * With more than one endpoint, per-endpoint request, 5xx and response-time counters are
+     * recorded in {@link StatsRegistry} under {@code http.endpoint.*.<host:port>}.
+     *
+     * @param url    endpoint base URL (http or https)
+     * @param weight relative share of users, used by WEIGHTED and CONSISTENT_HASH selection
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if the URL is invalid or the weight is not positive
+     */
+    public HttpProtocolFactory endpoint(String url, int weight) {
+        URI parsed;
+        try {
+            parsed = url == null ? null : URI.create(url);
+        } catch (IllegalArgumentException e) {
+            parsed = null;
+        }
+        if (parsed == null || parsed.getHost() == null
+                || !("https".equalsIgnoreCase(parsed.getScheme()) || "http".equalsIgnoreCase(parsed.getScheme()))) {
+            String msg = "Endpoint must be an http(s) URL with a host: " + url;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        if (weight <= 0) {
+            String msg = "Endpoint weight must be positive: " + weight;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        if (endpointWeights.isEmpty()) {
+            endpointWeights.put(baseUrl, 1);
+        }
+        endpointWeights.put(url, weight);
+        LOGGER.fine("Endpoint added: " + url + " with weight " + weight);
+        return this;
+    }
+
+    /**
+     * Selects how users are assigned to the endpoint pool. Round-robin and weighted assignment
+     * happen when a user starts.
+     *
+     * @param selection ROUND_ROBIN or WEIGHTED
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if selection is null or CONSISTENT_HASH (which needs a key)
+     */
+    public HttpProtocolFactory endpointSelection(EndpointSelection selection) {
+        if (selection == null || selection == EndpointSelection.CONSISTENT_HASH) {
+            String msg = "Endpoint selection must be ROUND_ROBIN or WEIGHTED, got: " + selection;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.endpointSelection = selection;
+        this.endpointHashKey = null;
+        LOGGER.fine("Endpoint selection set to: " + selection);
+        return this;
+    }
+
+    /**
+     * Assigns users to endpoints by a consistent hash of a session attribute. Users start on a
+     * round-robin endpoint and move to their hashed endpoint at {@link #assignEndpoint()}, which
+     * must run once the attribute is set (e.g. right after the feeder).
+     *
+     * @param sessionKey the session attribute to hash, e.g. {@code userId}
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if sessionKey is blank
+     */
+    public HttpProtocolFactory hashEndpointsBy(String sessionKey) {
+        if (sessionKey == null || sessionKey.isBlank()) {
+            LOGGER.severe("Endpoint hash key must not be null or blank.");
+            throw new IllegalArgumentException("Endpoint hash key must not be null or blank.");
+        }
+        this.endpointSelection = EndpointSelection.CONSISTENT_HASH;
+        this.endpointHashKey = sessionKey;
+        LOGGER.fine("Endpoint selection set to consistent hash of: " + sessionKey);
+        return this;
+    }
+
+    /**
+     * Returns a step that moves the current user to the endpoint owning its hash key.
+     * Users without the key keep their round-robin endpoint and are counted as
+     * {@code http.endpoint.unhashed}.
+     *
+     * @return a chain to exec in the scenario
+     * @throws IllegalStateException if consistent hashing is not configured
+     */
+    public ChainBuilder assignEndpoint() {
+        if (endpointSelection != EndpointSelection.CONSISTENT_HASH || endpointWeights.size() < 2) {
+            String msg = "assignEndpoint() requires hashEndpointsBy(...) and at least two endpoints.";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+        EndpointPool pool = new EndpointPool(endpointWeights);
+        String key = endpointHashKey;
+        return exec(session -> {
+            if (!session.contains(key)) {
+                StatsRegistry.increment("http.endpoint.unhashed");
+                return session;
+            }
+            return session.set(BASE_URL_ATTRIBUTE, pool.lookup(String.valueOf((Object) session.get(key))));
+        });
+    }
+
+    /**
+     * Gives each virtual user its own key manager, e.g. a distinct client certificate for mutual TLS.
+     * Implies per-user SSL contexts, so it is ignored with a shared connection pool.
+     * TLS protocols, cipher suites, OpenSSL vs JDK provider and the session cache size and
+     * timeout are engine-wide ({@code gatling.ssl} in gatling.conf, or {@code -Dgatling.ssl.*}).
+     *
+     * @param factory maps a user id to its KeyManagerFactory
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if factory is null
+     */
+    public HttpProtocolFactory perUserKeyManagerFactory(Function<Long, KeyManagerFactory> factory) {
+        if (factory == null) {
+            LOGGER.severe("KeyManagerFactory function must not be null.");
+            throw new IllegalArgumentException("KeyManagerFactory function must not be null.");
+        }
+        this.perUserKeyManagerFactory = factory;
+        LOGGER.fine("Per-user KeyManagerFactory set.");
+        return this;
+    }
+
+    /**
+     * Measures TLS handshake time against the base URL when the protocol is built, outside any
+     * measured request: one full handshake followed by {@code samples - 1} handshakes that may
+     * resume the session. Timings and the negotiated protocol and cipher are recorded in
+     * {@link StatsRegistry} under {@code tls.*}, so handshake cost can be compared with
+     * steady-state response times. The probe is skipped when the base URL is not https or a
+     * stub server is in use. Connect and handshake are each bounded to 5 seconds, and a failed
+     * probe is logged and counted without failing the build.
+     *
+     * @param samples number of handshakes, at least 1
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if samples is below 1
+     */
+    public HttpProtocolFactory measureTlsHandshake(int samples) {
+        if (samples < 1) {
+            String msg = "TLS handshake samples must be at least 1: " + samples;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.tlsHandshakeSamples = samples;
+        LOGGER.fine("TLS handshake probe enabled with samples: " + samples);
+        return this;
+    }
+
+    /**
+     * Registers a callback invoked with every measurement response, e.g. {@code CapacitySearch::record}.
+     * Responses to warm-up and cool-down users of a {@code SimulationFactory} are not observed,
+     * whether the phase is excluded from the report or tagged in it.
+     * Observers run on the I/O thread and must not block; they do not force the response
+     * body to be kept, and Gatling's default status check still applies.
+     *
+     * @param observer the response callback
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if observer is null
+     */
+    public HttpProtocolFactory observeResponses(Consumer<Response> observer) {
+        if (observer == null) {
+            LOGGER.severe("Response observer must not be null.");
+            throw new IllegalArgumentException("Response observer must not be null.");
+        }
+        responseObservers.add(observer);
+        LOGGER.fine("Response observer registered.");
+        return this;
+    }
+
     /**
      * Builds the HttpProtocolBuilder instance with the configured base URL and headers.
      *
@@ -106,11 +584,152 @@ public class HttpProtocolFactory {
             return builder;
         }
 
-        builder = HttpDsl.http.baseUrl(baseUrl).headers(Collections.unmodifiableMap(headers));
+        HttpProtocolBuilder protocol = HttpDsl.http.baseUrl(baseUrl).headers(Collections.unmodifiableMap(headers));
+        if (httpCacheDisabled) {
+            protocol = protocol.disableCaching();
+            LOGGER.fine("Per-user HTTP cache disabled.");
+        }
+
+        if (sharedConnections) {
+            protocol = protocol.shareConnections();
+            LOGGER.fine("Using a shared connection pool.");
+        }
+        if (maxConnectionsPerHost > 0) {
+            protocol = protocol.maxConnectionsPerHost(maxConnectionsPerHost);
+        }
+        if (!keepAlive) {
+            protocol = protocol.connectionHeader("close");
+        }
+
+        if (perUserKeyManagerFactory != null) {
+            if (sharedConnections) {
+                LOGGER.warning("Per-user KeyManagerFactory ignored: connections are shared.");
+            } else {
+                protocol = protocol.perUserKeyManagerFactory(perUserKeyManagerFactory);
+            }
+        }
+        if (tlsHandshakeSamples > 0) {
+            if (stubInUse) {
+                LOGGER.info("TLS handshake probe skipped: the stub server serves plain HTTP.");
+            } else {
+                TlsHandshakeProbe.probe(baseUrl, tlsHandshakeSamples);
+            }
+        }
+
+        if (http2Enabled) {
+            protocol = protocol.enableHttp2();
+            if (!http2PriorKnowledge.isEmpty()) {
+                protocol = protocol.http2PriorKnowledge(Collections.unmodifiableMap(http2PriorKnowledge));
+            }
+            LOGGER.fine("HTTP/2 enabled with prior knowledge for: " + http2PriorKnowledge.keySet());
+        }
+
+        if (nameResolution != NameResolution.JVM) {
+            protocol = protocol.asyncNameResolution(dnsServers);
+            if (nameResolution == NameResolution.ASYNC_PER_USER) {
+                protocol = protocol.perUserNameResolution();
+            }
+        }
+        if (!hostAliases.isEmpty()) {
+            protocol = protocol.hostNameAliases(Collections.unmodifiableMap(hostAliases));
+        }
+        LOGGER.fine("Name resolution: " + nameResolution + ", host aliases: " + hostAliases.keySet());
+        if (dnsStartupProbe) {
+            probeBaseHost();
+        }
+        if (compressionProbePath != null) {
+            CompressionProbe.probe(baseUrl + compressionProbePath, headers);
+        }
+
+        if (endpointWeights.size() > 1) {
+            EndpointPool pool = new EndpointPool(endpointWeights);
+            List<String> order = endpointSelection == EndpointSelection.WEIGHTED
+                    ? pool.weightedOrder()
+                    : pool.roundRobinOrder();
+            protocol = protocol.baseUrls(order);
+            responseObservers.add(HttpProtocolFactory::recordEndpoint);
+            LOGGER.fine("Endpoint pool (" + endpointSelection + "): " + endpointWeights);
+        }
+
+        if (!responseObservers.isEmpty()) {
+            List<Consumer<Response>> observers = List.copyOf(responseObservers);
+            // The observers run in the condition of a check that never runs. It is header-scoped:
+            // a status-scoped check would replace Gatling's default 2xx/304 status check on every
+            // request, and a body-scoped one would force every body to be kept.
+            protocol = protocol.checkIf((response, session) -> {
+                if (!session.contains(PHASE_ATTRIBUTE)) {
+                    observers.forEach(observer -> observer.accept(response));
+                }
+                return false;
+            }).then(HttpDsl.header(HttpHeaderNames.CONTENT_LENGTH).exists());
+            LOGGER.fine("Registered " + observers.size() + " response observer(s).");
+        }
+
+        builder = protocol;
         LOGGER.info("HttpProtocolBuilder built with baseUrl: " + baseUrl);
         return builder;
     }
 
+    /**
+     * Resolves the base URL host once, recording lookup time and address count.
+     * Aliased hosts are skipped since they never reach DNS.
+     */
+    private void probeBaseHost() {
+        String host = URI.create(baseUrl).getHost();
+        if (host == null || hostAliases.containsKey(host)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            InetAddress[] addresses = InetAddress.getAllByName(host);
+            long elapsed = System.nanoTime() - start;
+            StatsRegistry.add("dns.probe.nanos." + host, elapsed);
+            StatsRegistry.add("dns.probe.addresses." + host, addresses.length);
+            LOGGER.info("Resolved " + host + " to " + Arrays.toString(addresses)
+                    + " in " + elapsed / 1_000_000 + " ms");
+        } catch (UnknownHostException e) {
+            StatsRegistry.increment("dns.probe.failures." + host);
+            LOGGER.warning("Startup DNS probe failed for host: " + host);
+        }
+    }
+
+    /**
+     * Records request count, server errors and response time per endpoint.
+     */
+    private static void recordEndpoint(Response response) {
+        Uri uri = response.request().getUri();
+        String endpoint = uri.getHost() + ":" + uri.getPort();
+        StatsRegistry.increment("http.endpoint.requests." + endpoint);
+        StatsRegistry.add("http.endpoint.responseTimeMillis." + endpoint,
+                response.endTimestamp() - response.startTimestamp());
+        if (response.status().code() >= 500) {
+            StatsRegistry.increment("http.endpoint.errors." + endpoint);
+        }
+    }
+
+    /**
+     * Counts the HTTP version used by a response, per request name.
+     */
+    private static void recordHttpVersion(Response response) {
+        String version = response.isHttp2() ? "h2" : "h1";
+        StatsRegistry.increment("http.protocol." + version + "." + response.request().getName());
+    }
+
+    /**
+     * Counts compressed and identity responses, with the decoded size of compressed ones.
+     * Gatling's decoder keeps the original Content-Encoding header, and the body length
+     * is tracked for every response whether or not the body is kept.
+     */
+    private static void recordCompression(Response response) {
+        String encoding = response.headers().get(HttpHeaderNames.CONTENT_ENCODING);
+        if (encoding == null || encoding.isBlank() || "identity".equalsIgnoreCase(encoding)) {
+            StatsRegistry.increment("http.compression.response.identity");
+            return;
+        }
+        StatsRegistry.increment("http.compression.response.count");
+        StatsRegistry.add("http.compression.response.decodedBytes", response.body().length());
+    }
+
     /**
      * Retrieves an unmodifiable view of all configured headers.
      *
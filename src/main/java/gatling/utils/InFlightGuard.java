@@ -0,0 +1,197 @@
+package gatling.utils;
+
+import gatling.enums.OverloadPolicy;
+import io.gatling.javaapi.core.ChainBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+
+/**
+ * Caps the number of users running a scenario at once, so an open model cannot pile up
+ * sessions without limit when the system under test slows down. Applied through
+ * {@link SimulationFactory#guard(InFlightGuard)}.
+ *
+ * <p>Arrivals over the limit are handled by the {@link OverloadPolicy}: dropped, queued until a
+ * slot frees up (up to the {@link #queueTimeout(Duration) queue timeout}), or dropped while the
+ * run is aborted. Every shed arrival is recorded as a crashed {@code "shed arrival"} request, never sent,
+ * so it is listed with its count in the errors table of the Gatling report.
+ *
+ * <p>Each guard keeps its own admitted, queued and shed counts and peak in-flight figure, covering
+ * the measurement phase only: warm-up and cool-down users are still held to the limit but not counted.
+ *
+ * <pre>{@code
+ * InFlightGuard guard = new InFlightGuard(2_000, OverloadPolicy.DROP);
+ * new SimulationFactory(new ScenarioFactory("Auth").execChain(login, getUser), protocol)
+ *         .injectOpen(LoadProfileFactory.steadyUsers(200, 600))
+ *         .guard(guard)
+ *         .build();
+ * // after(): guard.logSummary()
+ * }</pre>
+ *
+ * The slot is released when the user reaches the end of the guarded chains. Failed requests do
+ * not end a user early, but an {@code exitHere} inside the chains would keep its slot.
+ */
+public final class InFlightGuard {
+
+    private static final Logger LOGGER = Logger.getLogger(InFlightGuard.class.getName());
+
+    private static final String ADMITTED_ATTRIBUTE = "inFlightGuard.admitted";
+    private static final String QUEUED_AT_ATTRIBUTE = "inFlightGuard.queuedAt";
+    private static final String SHED_REQUEST = "shed arrival";
+    private static final Duration POLL = Duration.ofMillis(50);
+
+    private final int maxInFlight;
+    private final OverloadPolicy policy;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private long queueTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Creates a guard with the given limit and overload policy.
+     *
+     * @param maxInFlight highest number of users running the scenario at once
+     * @param policy      what to do with arrivals over the limit
+     * @throws IllegalArgumentException if maxInFlight is not positive or policy is null
+     */
+    public InFlightGuard(int maxInFlight, OverloadPolicy policy) {
+        if (maxInFlight <= 0 || policy == null) {
+            String msg = "Invalid in-flight guard: maxInFlight=" + maxInFlight + ", policy=" + policy;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.maxInFlight = maxInFlight;
+        this.policy = policy;
+        LOGGER.info("Initialized in-flight guard at " + maxInFlight + " users with policy " + policy + ".");
+    }
+
+    /**
+     * Sets how long a queued arrival waits for a slot before it is shed. Only used by QUEUE.
+     *
+     * @param timeout maximum wait (default 30 s)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if timeout is null or not positive
+     */
+    public InFlightGuard queueTimeout(Duration timeout) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            String msg = "Queue timeout must be positive: " + timeout;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.queueTimeoutNanos = timeout.toNanos();
+        return this;
+    }
+
+    /**
+     * Wraps the chains so each user must take a slot before running them and frees it afterwards.
+     *
+     * @param body     the guarded chains
+     * @param measured whether admissions and sheds of these users are counted, false for
+     *                 warm-up and cool-down phases
+     * @return the guarded chain
+     */
+    ChainBuilder wrap(ChainBuilder body, boolean measured) {
+        ChainBuilder admission = exec(session -> session
+                .set(ADMITTED_ATTRIBUTE, tryAcquire(measured))
+                .set(QUEUED_AT_ATTRIBUTE, System.nanoTime()));
+        if (policy == OverloadPolicy.QUEUE) {
+            admission = admission
+                    .doIf(session -> measured && !session.getBoolean(ADMITTED_ATTRIBUTE)).then(exec(session -> {
+                        queued.increment();
+                        return session;
+                    }))
+                    .asLongAs(session -> !session.getBoolean(ADMITTED_ATTRIBUTE)
+                            && System.nanoTime() - session.getLong(QUEUED_AT_ATTRIBUTE) < queueTimeoutNanos)
+                    .on(pause(POLL).exec(session -> session.set(ADMITTED_ATTRIBUTE, tryAcquire(measured))));
+        }
+
+        String shedReason = "shed: in-flight limit of " + maxInFlight + " users reached";
+        // A request whose URL cannot be built is reported as an error without being sent.
+        ChainBuilder shedArrival = exec(session -> {
+            if (measured) {
+                shed.increment();
+            }
+            return session;
+        }).exec(http(SHED_REQUEST).get(session -> {
+            throw new IllegalStateException(shedReason);
+        }));
+        if (policy == OverloadPolicy.ABORT) {
+            shedArrival = shedArrival.exec(crashLoadGenerator("In-flight user limit of " + maxInFlight
+                    + " reached: the system under test is not keeping up with the arrival rate."));
+        }
+
+        return admission
+                .doIfOrElse(session -> session.getBoolean(ADMITTED_ATTRIBUTE))
+                .then(exec(body).exec(session -> {
+                    inFlight.decrementAndGet();
+                    return session;
+                }))
+                .orElse(shedArrival);
+    }
+
+    /**
+     * Returns the number of users currently holding a slot.
+     *
+     * @return in-flight users
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the highest number of measured users that held a slot at once.
+     *
+     * @return peak in-flight users
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Returns the number of measured arrivals shed so far.
+     *
+     * @return shed arrivals
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    /**
+     * Logs admitted, queued and shed measured arrivals and the peak in-flight count.
+     */
+    public void logSummary() {
+        long shedCount = getShed();
+        String summary = "In-flight guard (limit " + maxInFlight + ", " + policy + "): "
+                + admitted.sum() + " admitted, " + queued.sum() + " queued, "
+                + shedCount + " shed, peak " + peakInFlight.get() + " in flight.";
+        if (shedCount > 0) {
+            LOGGER.warning(summary);
+        } else {
+            LOGGER.info(summary);
+        }
+    }
+
+    private boolean tryAcquire(boolean measured) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (measured) {
+                    peakInFlight.accumulateAndGet(current + 1, Math::max);
+                    admitted.increment();
+                }
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package gatling.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free response time histogram in milliseconds.
+ * Buckets are 1 ms wide up to 1 s, 10 ms up to 10 s and 100 ms up to 60 s;
+ * slower responses fall into a single overflow bucket reported as 60 s.
+ */
+final class LatencyHistogram {
+
+    private static final int EXACT_LIMIT = 1_000;
+    private static final int MEDIUM_LIMIT = 10_000;
+    private static final int MAX_MILLIS = 60_000;
+    private static final int MEDIUM_OFFSET = EXACT_LIMIT;
+    private static final int COARSE_OFFSET = MEDIUM_OFFSET + (MEDIUM_LIMIT - EXACT_LIMIT) / 10;
+    private static final int OVERFLOW = COARSE_OFFSET + (MAX_MILLIS - MEDIUM_LIMIT) / 100;
+
+    private final AtomicLongArray counts = new AtomicLongArray(OVERFLOW + 1);
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Records one response time.
+     *
+     * @param millis response time in milliseconds; negative values count as 0
+     */
+    void record(long millis) {
+        counts.incrementAndGet(indexOf(Math.max(0, millis)));
+        total.increment();
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return value count
+     */
+    long count() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the given percentile, rounded up to its bucket's upper bound.
+     *
+     * @param percentile percentile in (0, 100]
+     * @return response time in milliseconds, or 0 if nothing was recorded
+     */
+    long percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i <= OVERFLOW; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return MAX_MILLIS;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    void reset() {
+        for (int i = 0; i <= OVERFLOW; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+    }
+
+    private static int indexOf(long millis) {
+        if (millis < EXACT_LIMIT) {
+            return (int) millis;
+        }
+        if (millis < MEDIUM_LIMIT) {
+            return MEDIUM_OFFSET + (int) ((millis - EXACT_LIMIT) / 10);
+        }
+        if (millis < MAX_MILLIS) {
+            return COARSE_OFFSET + (int) ((millis - MEDIUM_LIMIT) / 100);
+        }
+        return OVERFLOW;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < MEDIUM_OFFSET) {
+            return index;
+        }
+        if (index < COARSE_OFFSET) {
+            return EXACT_LIMIT + (index - MEDIUM_OFFSET + 1) * 10L - 1;
+        }
+        if (index < OVERFLOW) {
+            return MEDIUM_LIMIT + (index - COARSE_OFFSET + 1) * 100L - 1;
+        }
+        return MAX_MILLIS;
+    }
+}
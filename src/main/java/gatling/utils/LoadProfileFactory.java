@@ -1,6 +1,9 @@
 package gatling.utils;
 
+import io.gatling.javaapi.core.ClosedInjectionStep;
+import io.gatling.javaapi.core.CoreDsl;
 import io.gatling.javaapi.core.OpenInjectionStep;
+import io.gatling.javaapi.core.ThrottleStep;
 
 import java.time.Duration;
 import java.util.logging.Level;
@@ -10,7 +13,8 @@ import static io.gatling.javaapi.core.CoreDsl.*;
 
 /**
  * Provides factory methods to create various user load injection profiles
- * for open Gatling simulation models.
+ * for open and closed Gatling simulation models, and request-rate (throttle) profiles
+ * applied through {@code SimulationFactory#throttle}.
  */
 public final class LoadProfileFactory {
 
@@ -84,6 +88,233 @@ public final class LoadProfileFactory {
         return rampUsersPerSec(fromUsers).to(toUsers).during(Duration.ofSeconds(durationSeconds));
     }
 
+    /**
+     * Creates a staircase of arrival-rate plateaus for capacity searches: level {@code i} (from 0)
+     * injects {@code startingFrom + i * increment} users/sec for {@code levelSeconds}, and
+     * consecutive levels are joined by linear ramps of {@code rampSeconds}. See {@link CapacitySearch}.
+     * The starting rate must be positive: from 0, Gatling ramps up before the first plateau,
+     * which then holds at {@code increment} instead of 0.
+     *
+     * @param increment    users/sec added per level
+     * @param levels       number of plateaus
+     * @param levelSeconds duration of each plateau
+     * @param rampSeconds  duration of the ramp between plateaus, 0 to jump
+     * @param startingFrom users/sec of the first level, at least 1
+     * @return configured OpenInjectionStep
+     * @throws IllegalArgumentException for non-positive increment, levels, level duration
+     *                                  or starting rate, or a negative ramp
+     */
+    public static OpenInjectionStep staircase(int increment, int levels, int levelSeconds,
+                                              int rampSeconds, int startingFrom) {
+        if (increment <= 0 || levels <= 0 || levelSeconds <= 0 || rampSeconds < 0 || startingFrom <= 0) {
+            String msg = String.format("Invalid STAIRCASE: increment=%d, levels=%d, level=%ds, ramp=%ds, from=%d",
+                    increment, levels, levelSeconds, rampSeconds, startingFrom);
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        LOGGER.info("Creating STAIRCASE with " + levels + " level(s) of +" + increment
+                + " users/sec from " + startingFrom + ", each lasting " + levelSeconds
+                + " seconds with " + rampSeconds + " second ramps.");
+        return incrementUsersPerSec(increment)
+                .times(levels)
+                .eachLevelLasting(Duration.ofSeconds(levelSeconds))
+                .separatedByRampsLasting(Duration.ofSeconds(rampSeconds))
+                .startingFrom(startingFrom);
+    }
+
+    /**
+     * Creates a Poisson arrival process: users arrive at the given average rate with
+     * exponentially distributed gaps, like independent clients, instead of evenly spaced.
+     *
+     * @param usersPerSec     the average number of users per second
+     * @param durationSeconds duration of the load
+     * @return configured OpenInjectionStep
+     * @throws IllegalArgumentException if usersPerSec <= 0 or duration <= 0
+     */
+    public static OpenInjectionStep poisson(int usersPerSec, int durationSeconds) {
+        validate(usersPerSec, durationSeconds, "POISSON");
+        LOGGER.info("Creating POISSON profile with " + usersPerSec + " users/sec on average for "
+                + durationSeconds + " seconds.");
+        return constantUsersPerSec(usersPerSec).during(Duration.ofSeconds(durationSeconds)).randomized();
+    }
+
+    /**
+     * Creates a sinusoidal day/night profile oscillating between a trough and a peak arrival rate,
+     * compiled into at most 64 ramps (see {@link ArrivalCurve} to tune the budget and tolerance).
+     *
+     * @param troughUsersPerSec lowest users/sec
+     * @param peakUsersPerSec   highest users/sec
+     * @param periodSeconds     length of one cycle, e.g. 86400
+     * @param peakAtSeconds     offset from the start at which the peak occurs
+     * @param durationSeconds   duration of the load
+     * @return configured OpenInjectionSteps, to pass to {@code injectOpen}
+     * @throws IllegalArgumentException for negative rates or offset, trough above peak,
+     *                                  or non-positive period or duration
+     */
+    public static OpenInjectionStep[] diurnal(int troughUsersPerSec, int peakUsersPerSec, int periodSeconds,
+                                              int peakAtSeconds, int durationSeconds) {
+        LOGGER.info("Creating DIURNAL profile between " + troughUsersPerSec + " and " + peakUsersPerSec
+                + " users/sec with a " + periodSeconds + " second period for " + durationSeconds + " seconds.");
+        return arrivalCurve(ArrivalCurve.diurnal(troughUsersPerSec, peakUsersPerSec,
+                Duration.ofSeconds(periodSeconds), Duration.ofSeconds(peakAtSeconds)), durationSeconds);
+    }
+
+    /**
+     * Compiles an arrival curve (diurnal, piecewise, Poisson or custom) into a bounded number of steps.
+     *
+     * @param curve           the arrival curve
+     * @param durationSeconds duration of the load
+     * @return configured OpenInjectionSteps, to pass to {@code injectOpen}
+     * @throws IllegalArgumentException if curve is null or duration <= 0
+     */
+    public static OpenInjectionStep[] arrivalCurve(ArrivalCurve curve, int durationSeconds) {
+        if (curve == null || durationSeconds <= 0) {
+            String msg = String.format("Invalid ARRIVAL CURVE profile: curve=%s, duration=%d", curve, durationSeconds);
+            LOGGER.log(Level.SEVERE, msg);
+            throw new IllegalArgumentException(msg);
+        }
+        return curve.compile(Duration.ofSeconds(durationSeconds));
+    }
+
+    /**
+     * Creates an open-model profile reproducing the arrivals of a production trace,
+     * including its bursts. Pair it with {@link TraceReplay#chain()} in the scenario.
+     *
+     * @param trace the trace replay, with at least one BasePath mapped
+     * @return configured OpenInjectionSteps, to pass to {@code injectOpen}
+     * @throws IllegalArgumentException if trace is null
+     * @throws IllegalStateException    if the trace has no arrival on a mapped path or is not sorted by time
+     */
+    public static OpenInjectionStep[] traceReplay(TraceReplay trace) {
+        if (trace == null) {
+            String msg = "Invalid TRACE REPLAY profile: trace must not be null";
+            LOGGER.log(Level.SEVERE, msg);
+            throw new IllegalArgumentException(msg);
+        }
+        OpenInjectionStep[] steps = trace.profile();
+        LOGGER.info("Creating TRACE REPLAY profile with " + steps.length + " step(s).");
+        return steps;
+    }
+
+    /**
+     * Creates a closed-model profile holding a constant number of concurrent users.
+     * A new user starts as soon as one finishes, like a fixed pool of workers.
+     *
+     * @param users           the number of concurrent users
+     * @param durationSeconds duration of the plateau
+     * @return configured ClosedInjectionStep
+     * @throws IllegalArgumentException if users <= 0 or duration <= 0
+     */
+    public static ClosedInjectionStep constantConcurrency(int users, int durationSeconds) {
+        validate(users, durationSeconds, "CONSTANT CONCURRENCY");
+        LOGGER.info("Creating CONSTANT CONCURRENCY profile with " + users + " concurrent users for "
+                + durationSeconds + " seconds.");
+        return constantConcurrentUsers(users).during(Duration.ofSeconds(durationSeconds));
+    }
+
+    /**
+     * Creates a closed-model profile ramping the number of concurrent users linearly.
+     *
+     * @param fromUsers       starting concurrency
+     * @param toUsers         ending concurrency
+     * @param durationSeconds duration of the ramp
+     * @return configured ClosedInjectionStep
+     * @throws IllegalArgumentException if either bound is negative, they are equal, or duration <= 0
+     */
+    public static ClosedInjectionStep rampConcurrency(int fromUsers, int toUsers, int durationSeconds) {
+        if (fromUsers < 0 || toUsers < 0 || fromUsers == toUsers || durationSeconds <= 0) {
+            String msg = String.format("Invalid RAMP CONCURRENCY: from=%d, to=%d, duration=%d",
+                    fromUsers, toUsers, durationSeconds);
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        LOGGER.info("Creating RAMP CONCURRENCY from " + fromUsers + " to " + toUsers +
+                " concurrent users over " + durationSeconds + " seconds.");
+        return rampConcurrentUsers(fromUsers).to(toUsers).during(Duration.ofSeconds(durationSeconds));
+    }
+
+    /**
+     * Creates a closed-model staircase of concurrency plateaus: level {@code i} (from 0) holds
+     * {@code startingFrom + i * increment} concurrent users for {@code levelSeconds}, and
+     * consecutive levels are joined by linear ramps of {@code rampSeconds}.
+     * The starting concurrency must be positive: from 0, Gatling ramps up before the first plateau,
+     * which then holds at {@code increment} instead of 0.
+     *
+     * @param increment        concurrent users added per level
+     * @param levels           number of plateaus
+     * @param levelSeconds     duration of each plateau
+     * @param rampSeconds      duration of the ramp between plateaus, 0 to jump
+     * @param startingFrom     concurrent users of the first level, at least 1
+     * @return configured ClosedInjectionStep
+     * @throws IllegalArgumentException for non-positive increment, levels, level duration
+     *                                  or starting concurrency, or a negative ramp
+     */
+    public static ClosedInjectionStep steppedConcurrency(int increment, int levels, int levelSeconds,
+                                                         int rampSeconds, int startingFrom) {
+        if (increment <= 0 || levels <= 0 || levelSeconds <= 0 || rampSeconds < 0 || startingFrom <= 0) {
+            String msg = String.format("Invalid STEPPED CONCURRENCY: increment=%d, levels=%d, level=%ds, ramp=%ds, from=%d",
+                    increment, levels, levelSeconds, rampSeconds, startingFrom);
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        LOGGER.info("Creating STEPPED CONCURRENCY with " + levels + " level(s) of +" + increment
+                + " concurrent users from " + startingFrom + ", each lasting " + levelSeconds
+                + " seconds with " + rampSeconds + " second ramps.");
+        return incrementConcurrentUsers(increment)
+                .times(levels)
+                .eachLevelLasting(Duration.ofSeconds(levelSeconds))
+                .separatedByRampsLasting(Duration.ofSeconds(rampSeconds))
+                .startingFrom(startingFrom);
+    }
+
+    /**
+     * Creates a throttle step ramping the request rate linearly from the current cap to a target RPS.
+     * Throttling only caps throughput: inject enough users to sustain the target.
+     *
+     * @param rps             target requests per second
+     * @param durationSeconds duration of the ramp
+     * @return configured ThrottleStep
+     * @throws IllegalArgumentException if rps <= 0 or duration <= 0
+     */
+    public static ThrottleStep rampRps(int rps, int durationSeconds) {
+        validate(rps, durationSeconds, "RAMP RPS");
+        LOGGER.info("Creating RAMP RPS profile to " + rps + " rps over " + durationSeconds + " seconds.");
+        return reachRps(rps).in(Duration.ofSeconds(durationSeconds));
+    }
+
+    /**
+     * Creates a throttle step holding the current request rate cap.
+     *
+     * @param durationSeconds duration of the plateau
+     * @return configured ThrottleStep
+     * @throws IllegalArgumentException if duration <= 0
+     */
+    public static ThrottleStep holdRps(int durationSeconds) {
+        if (durationSeconds <= 0) {
+            String msg = String.format("Invalid HOLD RPS profile: duration=%d", durationSeconds);
+            LOGGER.log(Level.SEVERE, msg);
+            throw new IllegalArgumentException(msg);
+        }
+        LOGGER.info("Creating HOLD RPS profile for " + durationSeconds + " seconds.");
+        return holdFor(Duration.ofSeconds(durationSeconds));
+    }
+
+    /**
+     * Creates a throttle step switching the request rate cap to a new value immediately.
+     *
+     * @param rps new requests per second cap
+     * @return configured ThrottleStep
+     * @throws IllegalArgumentException if rps <= 0
+     */
+    public static ThrottleStep jumpRps(int rps) {
+        validate(rps, "JUMP RPS");
+        LOGGER.info("Creating JUMP RPS profile to " + rps + " rps.");
+        return CoreDsl.jumpToRps(rps);
+    }
+
     /**
      * Validates positive user count.
      */
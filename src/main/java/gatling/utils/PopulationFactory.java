@@ -1,12 +1,14 @@
 package gatling.utils;
 
 import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Utility class for validating and wrapping PopulationBuilder instances.
+ * Utility class for validating and wrapping PopulationBuilder instances,
+ * and for building weighted workload mixes of several scenarios.
  */
 public final class PopulationFactory {
 
@@ -35,4 +37,22 @@ public final class PopulationFactory {
         LOGGER.info("PopulationBuilder instance validated successfully.");
         return population;
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts a weighted workload mix of scenarios sharing one global arrival rate.
+     *
+     * @param protocol the protocol shared by every scenario in the mix
+     * @return a new WorkloadMix
+     * @throws IllegalArgumentException if protocol is null
+     */
+    public static WorkloadMix mix(HttpProtocolBuilder protocol) {
+        if (protocol == null) {
+            String msg = "Workload mix protocol must not be null.";
+            LOGGER.log(Level.SEVERE, msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        LOGGER.info("Starting workload mix.");
+        return new WorkloadMix(protocol);
+    }
+}
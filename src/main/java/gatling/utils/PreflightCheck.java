@@ -0,0 +1,300 @@
+package gatling.utils;
+
+import gatling.enums.BudgetPolicy;
+import io.gatling.javaapi.core.ClosedInjectionStep;
+import io.gatling.core.controller.inject.open.AtOnceOpenInjection;
+import io.gatling.core.controller.inject.open.CompositeOpenInjectionStep;
+import io.gatling.core.controller.inject.open.CompositeOpenInjectionStepLike;
+import io.gatling.core.controller.inject.open.ConstantRateOpenInjection;
+import io.gatling.core.controller.inject.open.NothingForOpenInjection;
+import io.gatling.core.controller.inject.open.PoissonOpenInjection;
+import io.gatling.core.controller.inject.open.RampRateOpenInjection;
+import io.gatling.javaapi.core.OpenInjectionStep;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Pre-flight estimate of an injection plan, checked by {@link SimulationFactory#build()}
+ * against the injector's heap and connection budgets before any user is started.
+ *
+ * <p>Each user is assumed to live for the given scenario duration. For open steps, arrivals per
+ * second are computed from each step's parameters: a constant rate contributes rate × duration,
+ * a ramp the area under its line, so the cost grows with the plan's duration, not its user count.
+ * Peak concurrency is the largest number of arrivals within any window of one scenario duration. For closed steps, concurrency is
+ * read from the plan directly, and arrivals are derived from it as concurrency / scenario duration.
+ *
+ * <pre>{@code
+ * new SimulationFactory(scenario, protocol)
+ *         .injectOpen(LoadProfileFactory.steadyUsers(200, 3600))
+ *         .preflight(new PreflightCheck(Duration.ofSeconds(45))
+ *                 .connectionBudget(20_000, 1)
+ *                 .policy(BudgetPolicy.REFUSE))
+ *         .build();
+ * }</pre>
+ */
+public final class PreflightCheck {
+
+    private static final Logger LOGGER = Logger.getLogger(PreflightCheck.class.getName());
+
+    /**
+     * Default live memory per user: session, HTTP client state and one TLS connection's buffers.
+     */
+    private static final long DEFAULT_BYTES_PER_USER = 64 * 1024;
+
+    private final long scenarioMillis;
+    private long heapBudgetBytes = Runtime.getRuntime().maxMemory();
+    private long bytesPerUser = DEFAULT_BYTES_PER_USER;
+    private long connectionBudget = Long.MAX_VALUE;
+    private int connectionsPerUser = 1;
+    private BudgetPolicy policy = BudgetPolicy.WARN;
+
+    /**
+     * Creates a check assuming each user runs the scenario for the given duration.
+     * The heap budget defaults to the injector's max heap and the connection budget to unlimited.
+     *
+     * @param scenarioDuration expected time from a user's start to its end, including pauses
+     * @throws IllegalArgumentException if scenarioDuration is null or not positive
+     */
+    public PreflightCheck(Duration scenarioDuration) {
+        if (scenarioDuration == null || scenarioDuration.toMillis() <= 0) {
+            String msg = "Pre-flight scenario duration must be positive: " + scenarioDuration;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.scenarioMillis = scenarioDuration.toMillis();
+    }
+
+    /**
+     * Sets the heap budget and the memory each live user is assumed to hold.
+     *
+     * @param maxBytes     heap available to virtual users
+     * @param bytesPerUser live memory per user (default 64 KiB)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if either value is not positive
+     */
+    public PreflightCheck heapBudget(long maxBytes, long bytesPerUser) {
+        if (maxBytes <= 0 || bytesPerUser <= 0) {
+            String msg = "Invalid heap budget: maxBytes=" + maxBytes + ", bytesPerUser=" + bytesPerUser;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.heapBudgetBytes = maxBytes;
+        this.bytesPerUser = bytesPerUser;
+        return this;
+    }
+
+    /**
+     * Sets the per-node connection budget, e.g. the injector's file descriptor limit.
+     *
+     * @param maxConnections     connections the injector may open
+     * @param connectionsPerUser connections each live user holds (1 unless connections are shared)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if maxConnections is not positive or connectionsPerUser is negative
+     */
+    public PreflightCheck connectionBudget(long maxConnections, int connectionsPerUser) {
+        if (maxConnections <= 0 || connectionsPerUser < 0) {
+            String msg = "Invalid connection budget: maxConnections=" + maxConnections
+                    + ", connectionsPerUser=" + connectionsPerUser;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.connectionBudget = maxConnections;
+        this.connectionsPerUser = connectionsPerUser;
+        return this;
+    }
+
+    /**
+     * Sets what happens when a budget is exceeded.
+     *
+     * @param policy WARN (default) or REFUSE
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if policy is null
+     */
+    public PreflightCheck policy(BudgetPolicy policy) {
+        if (policy == null) {
+            String msg = "Budget policy must not be null.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * Estimates an open injection plan.
+     *
+     * @param steps the open steps, in order
+     * @return the estimate
+     */
+    Estimate estimateOpen(List<OpenInjectionStep> steps) {
+        long planMillis = 0;
+        for (OpenInjectionStep step : steps) {
+            io.gatling.core.controller.inject.open.OpenInjectionStep scalaStep = step.asScala();
+            // A stairs step's own duration is one level's; its composite spans all levels and ramps.
+            planMillis += (scalaStep instanceof CompositeOpenInjectionStepLike like ? like.composite() : scalaStep)
+                    .duration().toMillis();
+        }
+        double[] perSecond = new double[(int) (planMillis / 1000) + 1];
+        double offset = 0;
+        for (OpenInjectionStep step : steps) {
+            offset = addArrivals(perSecond, step.asScala(), offset);
+        }
+
+        int window = (int) Math.max(1, (scenarioMillis + 999) / 1000);
+        double live = 0;
+        double totalUsers = 0;
+        double peakConcurrent = 0;
+        double peakRate = 0;
+        for (int second = 0; second < perSecond.length; second++) {
+            live += perSecond[second];
+            if (second >= window) {
+                live -= perSecond[second - window];
+            }
+            totalUsers += perSecond[second];
+            peakConcurrent = Math.max(peakConcurrent, live);
+            peakRate = Math.max(peakRate, perSecond[second]);
+        }
+        return estimate(Math.round(peakConcurrent), Math.round(totalUsers), peakRate);
+    }
+
+    /**
+     * Adds a step's expected arrivals to the per-second counts. Randomized (Poisson) steps count their
+     * expected rate, and step kinds without a rate, such as heaviside, are spread evenly over their duration.
+     *
+     * @param perSecond arrivals per second of the plan
+     * @param step      the step
+     * @param offset    plan time at which the step starts, in seconds
+     * @return plan time at which the step ends, in seconds
+     */
+    private static double addArrivals(double[] perSecond, io.gatling.core.controller.inject.open.OpenInjectionStep step,
+                                      double offset) {
+        double seconds = step.duration().toMillis() / 1000.0;
+        if (step instanceof CompositeOpenInjectionStepLike like) {
+            return addArrivals(perSecond, like.composite(), offset);
+        } else if (step instanceof CompositeOpenInjectionStep composite) {
+            scala.collection.Iterator<io.gatling.core.controller.inject.open.OpenInjectionStep> inner = composite.steps().iterator();
+            double end = offset;
+            while (inner.hasNext()) {
+                end = addArrivals(perSecond, inner.next(), end);
+            }
+            return end;
+        } else if (step instanceof AtOnceOpenInjection atOnce) {
+            perSecond[Math.min((int) offset, perSecond.length - 1)] += atOnce.users();
+        } else if (step instanceof NothingForOpenInjection) {
+            // No arrivals.
+        } else if (step instanceof ConstantRateOpenInjection constant) {
+            addRamp(perSecond, offset, seconds, constant.rate(), constant.rate());
+        } else if (step instanceof RampRateOpenInjection ramp) {
+            addRamp(perSecond, offset, seconds, ramp.startRate(), ramp.endRate());
+        } else if (step instanceof PoissonOpenInjection poisson) {
+            addRamp(perSecond, offset, seconds, poisson.startRate(), poisson.endRate());
+        } else if (seconds > 0) {
+            // rampUsers and other user-count steps.
+            addRamp(perSecond, offset, seconds, step.users() / seconds, step.users() / seconds);
+        } else {
+            perSecond[Math.min((int) offset, perSecond.length - 1)] += step.users();
+        }
+        return offset + seconds;
+    }
+
+    /**
+     * Adds the area under a linear rate from startRate to endRate over [offset, offset + seconds)
+     * to each second it covers.
+     */
+    private static void addRamp(double[] perSecond, double offset, double seconds, double startRate, double endRate) {
+        if (seconds <= 0) {
+            return;
+        }
+        double end = offset + seconds;
+        for (int second = (int) offset; second < end && second < perSecond.length; second++) {
+            double from = Math.max(offset, second);
+            double to = Math.min(end, second + 1);
+            double rateFrom = startRate + (endRate - startRate) * (from - offset) / seconds;
+            double rateTo = startRate + (endRate - startRate) * (to - offset) / seconds;
+            perSecond[second] += (to - from) * (rateFrom + rateTo) / 2;
+        }
+    }
+
+    /**
+     * Estimates a closed injection plan.
+     *
+     * @param steps the closed steps, in order
+     * @return the estimate
+     */
+    Estimate estimateClosed(List<ClosedInjectionStep> steps) {
+        double scenarioSeconds = scenarioMillis / 1000.0;
+        long peakConcurrent = 0;
+        double totalUsers = 0;
+        double peakRate = 0;
+        int previous = 0;
+        for (ClosedInjectionStep javaStep : steps) {
+            io.gatling.core.controller.inject.closed.ClosedInjectionStep step = javaStep.asScala();
+            long seconds = step.duration().toSeconds();
+            for (long second = 0; second < Math.max(1, seconds); second++) {
+                int concurrent = step.valueAt(new FiniteDuration(second, TimeUnit.SECONDS));
+                // Users replacing finished ones, plus any added to raise concurrency.
+                double arrivals = concurrent / scenarioSeconds + Math.max(0, concurrent - previous);
+                peakConcurrent = Math.max(peakConcurrent, concurrent);
+                peakRate = Math.max(peakRate, arrivals);
+                totalUsers += arrivals;
+                previous = concurrent;
+            }
+        }
+        return estimate(peakConcurrent, Math.round(totalUsers), peakRate);
+    }
+
+    /**
+     * Compares an estimate with the budgets, applying the policy when one is exceeded.
+     *
+     * @param estimate the estimate
+     * @throws IllegalStateException if a budget is exceeded and the policy is REFUSE
+     */
+    void check(Estimate estimate) {
+        LOGGER.info(String.format("Pre-flight estimate: peak %d concurrent users, %d total users, peak %.1f users/sec, "
+                        + "~%d MiB heap, %d connections.", estimate.peakConcurrentUsers(), estimate.totalUsers(),
+                estimate.peakArrivalRate(), estimate.heapBytes() / (1024 * 1024), estimate.connections()));
+
+        StringBuilder exceeded = new StringBuilder();
+        if (estimate.heapBytes() > heapBudgetBytes) {
+            exceeded.append(String.format(" Heap: ~%d MiB needed for %d live users at %d KiB each, budget %d MiB.",
+                    estimate.heapBytes() / (1024 * 1024), estimate.peakConcurrentUsers(), bytesPerUser / 1024,
+                    heapBudgetBytes / (1024 * 1024)));
+        }
+        if (estimate.connections() > connectionBudget) {
+            exceeded.append(String.format(" Connections: %d needed, budget %d.",
+                    estimate.connections(), connectionBudget));
+        }
+        if (exceeded.length() == 0) {
+            return;
+        }
+        String msg = "Injection plan exceeds the injector budget." + exceeded
+                + " Shorten the scenario, lower the arrival rate or add injectors.";
+        if (policy == BudgetPolicy.REFUSE) {
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+        LOGGER.warning(msg);
+    }
+
+    private Estimate estimate(long peakConcurrent, long totalUsers, double peakRate) {
+        return new Estimate(peakConcurrent, totalUsers, peakRate,
+                peakConcurrent * bytesPerUser, peakConcurrent * connectionsPerUser);
+    }
+
+    /**
+     * Expected load of an injection plan.
+     *
+     * @param peakConcurrentUsers highest number of users alive at once
+     * @param totalUsers          users started over the whole run
+     * @param peakArrivalRate     highest number of users started within one second
+     * @param heapBytes           live user memory at peak concurrency
+     * @param connections         open connections at peak concurrency
+     */
+    public record Estimate(long peakConcurrentUsers, long totalUsers, double peakArrivalRate,
+                           long heapBytes, long connections) {
+    }
+}
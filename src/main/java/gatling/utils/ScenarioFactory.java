@@ -10,6 +10,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
 
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.group;
 import static io.gatling.javaapi.core.CoreDsl.scenario;
 
 /**
@@ -81,6 +83,41 @@ public class ScenarioFactory {
         return builder;
     }
 
+    /**
+     * Builds the ScenarioBuilder for one phase of a phased run, optionally wrapping all chained
+     * steps in an in-flight guard so users must take a slot before the first step and free it
+     * after the last one. Warm-up and cool-down phases get their own scenario name, as Gatling
+     * requires unique names across populations, and are held to the guard's limit without being
+     * counted in its summary. Their users carry the phase in the session, so protocol-level
+     * response observers skip them.
+     *
+     * @param phase phase label such as "warm-up", or null for the measurement phase
+     * @param group whether to run the steps inside a group named after the phase
+     * @param guard the in-flight guard, or null
+     * @return the fully constructed ScenarioBuilder
+     */
+    ScenarioBuilder build(String phase, boolean group, InFlightGuard guard) {
+        if (chainSteps.isEmpty()) {
+            LOGGER.warning("Building scenario with no chain steps: " + scenarioName);
+        }
+
+        String name = phase == null ? scenarioName : scenarioName + " [" + phase + "]";
+        ChainBuilder steps = exec(chainSteps);
+        if (guard != null) {
+            steps = guard.wrap(steps, phase == null);
+        }
+        if (phase != null && group) {
+            steps = group(phase).on(steps);
+        }
+        ScenarioBuilder builder = phase == null
+                ? scenario(name).exec(steps)
+                : scenario(name).exec(session -> session.set(HttpProtocolFactory.PHASE_ATTRIBUTE, phase)).exec(steps);
+
+        LOGGER.info("Scenario \"" + name + "\" built with " + chainSteps.size() + " step(s)"
+                + (guard != null ? " behind an in-flight guard." : "."));
+        return builder;
+    }
+
     /**
      * Exposes an unmodifiable list of configured chain steps.
      *
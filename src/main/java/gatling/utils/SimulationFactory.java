@@ -1,5 +1,6 @@
 package gatling.utils;
 
+import gatling.enums.PhaseStats;
 import io.gatling.javaapi.core.*;
 import io.gatling.javaapi.http.HttpProtocolBuilder;
 
@@ -17,10 +18,17 @@ public class SimulationFactory {
     private static final Logger LOGGER = Logger.getLogger(SimulationFactory.class.getName());
 
     private final ScenarioBuilder scenario;
+    private final ScenarioFactory scenarioFactory;
     private final HttpProtocolBuilder protocol;
 
     private List<OpenInjectionStep> openSteps = new ArrayList<>();
     private List<ClosedInjectionStep> closedSteps = new ArrayList<>();
+    private List<ThrottleStep> throttleSteps = new ArrayList<>();
+    private PreflightCheck preflight;
+    private InFlightGuard guard;
+    private List<OpenInjectionStep> warmUpSteps = new ArrayList<>();
+    private List<OpenInjectionStep> coolDownSteps = new ArrayList<>();
+    private PhaseStats phaseStats = PhaseStats.EXCLUDE;
 
     /**
      * Constructs the factory with required scenario and protocol.
@@ -37,10 +45,34 @@ public class SimulationFactory {
         }
 
         this.scenario = scenario;
+        this.scenarioFactory = null;
         this.protocol = protocol;
         LOGGER.info("SimulationFactory initialized with valid scenario and protocol.");
     }
 
+    /**
+     * Constructs the factory from a scenario factory, building the scenario in {@link #build()}.
+     * Required for {@link #guard(InFlightGuard)}, which wraps the scenario's steps, and for
+     * {@link #warmUp} and {@link #coolDown}, which run the scenario under separate names.
+     *
+     * @param scenarioFactory the ScenarioFactory
+     * @param protocol        the HttpProtocolBuilder
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public SimulationFactory(ScenarioFactory scenarioFactory, HttpProtocolBuilder protocol) {
+        if (scenarioFactory == null || protocol == null) {
+            String msg = "Scenario and protocol must not be null.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.scenario = null;
+        this.scenarioFactory = scenarioFactory;
+        this.protocol = protocol;
+        LOGGER.info("SimulationFactory initialized with scenario factory \"" + scenarioFactory.getScenarioName()
+                + "\" and protocol.");
+    }
+
     /**
      * Sets the open model injection steps (e.g., at-once, ramp-up).
      * If previously defined, the list will be replaced.
@@ -53,14 +85,14 @@ public class SimulationFactory {
             LOGGER.warning("No open injection steps provided. Injection not set.");
             return this;
         }
-        this.openSteps = Arrays.asList(steps);
+        this.openSteps = new ArrayList<>(Arrays.asList(steps));
         this.closedSteps.clear(); // enforce mutual exclusivity
         LOGGER.info("Open injection configured with " + openSteps.size() + " step(s).");
         return this;
     }
 
     /**
-     * Sets the closed model injection steps (e.g., constant concurrent users).
+     * Sets the closed model injection steps (e.g., {@code LoadProfileFactory.constantConcurrency}).
      * If previously defined, the list will be replaced.
      *
      * @param steps array of ClosedInjectionStep
@@ -71,22 +103,185 @@ public class SimulationFactory {
             LOGGER.warning("No closed injection steps provided. Injection not set.");
             return this;
         }
-        this.closedSteps = Arrays.asList(steps);
+        this.closedSteps = new ArrayList<>(Arrays.asList(steps));
         this.openSteps.clear(); // enforce mutual exclusivity
         LOGGER.info("Closed injection configured with " + closedSteps.size() + " step(s).");
         return this;
     }
 
+    /**
+     * Sets the request-rate profile applied as throttling on the built population
+     * (e.g. {@code LoadProfileFactory.rampRps}, {@code holdRps}, {@code jumpRps}).
+     * Throttling caps requests per second across the scenario, so the injection must
+     * supply enough users to reach it. Once the last step ends the cap is lifted, so end
+     * the run with the throttle (e.g. with {@code maxDuration}) or finish on a hold.
+     * If previously defined, the list will be replaced.
+     *
+     * @param steps array of ThrottleStep
+     * @return this instance for fluent API
+     */
+    public SimulationFactory throttle(ThrottleStep... steps) {
+        if (steps == null || steps.length == 0) {
+            LOGGER.warning("No throttle steps provided. Throttling not set.");
+            return this;
+        }
+        this.throttleSteps = Arrays.asList(steps);
+        LOGGER.info("Throttling configured with " + throttleSteps.size() + " step(s).");
+        return this;
+    }
+
+    /**
+     * Enables the pre-flight estimate of the injection plan, checked against the injector's
+     * heap and connection budgets when the simulation is built.
+     *
+     * @param check the pre-flight check, with the assumed scenario duration and budgets
+     * @return this instance for fluent API
+     */
+    public SimulationFactory preflight(PreflightCheck check) {
+        if (check == null) {
+            LOGGER.warning("No pre-flight check provided. Pre-flight estimate not set.");
+            return this;
+        }
+        this.preflight = check;
+        LOGGER.info("Pre-flight estimate enabled.");
+        return this;
+    }
+
+    /**
+     * Caps the number of users running the scenario at once (see {@link InFlightGuard}).
+     * Shed arrivals are listed in the report's errors table as "shed arrival".
+     *
+     * @param guard the in-flight guard
+     * @return this instance for fluent API
+     * @throws IllegalStateException if the factory was created from a built ScenarioBuilder,
+     *                               whose steps can no longer be wrapped
+     */
+    public SimulationFactory guard(InFlightGuard guard) {
+        if (guard == null) {
+            LOGGER.warning("No in-flight guard provided. Guard not set.");
+            return this;
+        }
+        requireScenarioFactory("In-flight guard");
+        this.guard = guard;
+        LOGGER.info("In-flight guard enabled.");
+        return this;
+    }
+
+    /**
+     * Sets a warm-up phase run before the measurement injection, so JIT compilation, connection
+     * pools and caches settle before measured traffic starts. The measurement phase begins once
+     * every warm-up user has finished. Cannot be combined with {@link #throttle(ThrottleStep...)}:
+     * Gatling starts the throttle with the simulation, so it would run during the warm-up.
+     * If previously defined, the list will be replaced.
+     *
+     * @param steps array of OpenInjectionStep for the warm-up phase
+     * @return this instance for fluent API
+     * @throws IllegalStateException if the factory was created from a built ScenarioBuilder
+     */
+    public SimulationFactory warmUp(OpenInjectionStep... steps) {
+        if (steps == null || steps.length == 0) {
+            LOGGER.warning("No warm-up steps provided. Warm-up not set.");
+            return this;
+        }
+        requireScenarioFactory("Warm-up phase");
+        this.warmUpSteps = new ArrayList<>(Arrays.asList(steps));
+        LOGGER.info("Warm-up phase configured with " + warmUpSteps.size() + " step(s).");
+        return this;
+    }
+
+    /**
+     * Sets a cool-down phase run after every measurement user has finished.
+     * A throttle still running at that point also caps the cool-down's requests.
+     * If previously defined, the list will be replaced.
+     *
+     * @param steps array of OpenInjectionStep for the cool-down phase
+     * @return this instance for fluent API
+     * @throws IllegalStateException if the factory was created from a built ScenarioBuilder
+     */
+    public SimulationFactory coolDown(OpenInjectionStep... steps) {
+        if (steps == null || steps.length == 0) {
+            LOGGER.warning("No cool-down steps provided. Cool-down not set.");
+            return this;
+        }
+        requireScenarioFactory("Cool-down phase");
+        this.coolDownSteps = new ArrayList<>(Arrays.asList(steps));
+        LOGGER.info("Cool-down phase configured with " + coolDownSteps.size() + " step(s).");
+        return this;
+    }
+
+    /**
+     * Sets how warm-up and cool-down requests are reported (default EXCLUDE).
+     * EXCLUDE leaves them out of the report; TAG lists them under a "warm-up" or "cool-down" group.
+     * In both modes, observers registered with {@code HttpProtocolFactory#observeResponses} do not
+     * see phase responses, so capacity search, adaptive load and endpoint stats only count measurement traffic.
+     *
+     * @param phaseStats the reporting mode
+     * @return this instance for fluent API
+     */
+    public SimulationFactory phaseStats(PhaseStats phaseStats) {
+        if (phaseStats == null) {
+            LOGGER.warning("No phase stats mode provided. Keeping " + this.phaseStats + ".");
+            return this;
+        }
+        this.phaseStats = phaseStats;
+        LOGGER.info("Phase stats mode set to " + phaseStats + ".");
+        return this;
+    }
+
+    /**
+     * Estimates peak concurrent users, total users and peak arrival rate of the configured injection.
+     *
+     * @return the estimate
+     * @throws IllegalStateException if no pre-flight check or no injection steps are configured
+     */
+    public PreflightCheck.Estimate estimate() {
+        if (preflight == null) {
+            String msg = "No pre-flight check configured. Cannot estimate injection.";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+        if (!openSteps.isEmpty()) {
+            return preflight.estimateOpen(openSteps);
+        }
+        if (!closedSteps.isEmpty()) {
+            return preflight.estimateClosed(closedSteps);
+        }
+        String msg = "No injection steps configured. Cannot estimate injection.";
+        LOGGER.severe(msg);
+        throw new IllegalStateException(msg);
+    }
+
     /**
      * Builds the final PopulationBuilder with configured scenario, injection, and protocol.
+     * With warm-up or cool-down phases, the returned population is the first phase and the
+     * following phases are chained to it with {@code andThen}. The pre-flight estimate only
+     * covers the measurement phase. Throttling is global in Gatling and runs on the simulation
+     * clock from the start of the run, so it cannot be combined with a warm-up phase.
      *
      * @return a fully configured PopulationBuilder
-     * @throws IllegalStateException if no injection steps are defined
+     * @throws IllegalStateException if no injection steps are defined, throttling is combined with
+     *                               a warm-up phase, or the pre-flight estimate exceeds a budget
+     *                               under the REFUSE policy
      */
     public PopulationBuilder build() {
         LOGGER.info("Building PopulationBuilder...");
 
+        if (!throttleSteps.isEmpty() && !warmUpSteps.isEmpty()) {
+            String msg = "Throttling cannot be combined with a warm-up phase: Gatling starts the throttle "
+                    + "with the simulation, so it would apply to the warm-up instead of the measurement.";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+
+        if (preflight != null && (!openSteps.isEmpty() || !closedSteps.isEmpty())) {
+            preflight.check(estimate());
+        }
+
         PopulationBuilder builder;
+        ScenarioBuilder scenario = this.scenario;
+        if (scenarioFactory != null) {
+            scenario = scenarioFactory.build(null, false, guard);
+        }
 
         if (!openSteps.isEmpty()) {
             builder = scenario.injectOpen(openSteps.toArray(new OpenInjectionStep[0]));
@@ -100,6 +295,39 @@ public class SimulationFactory {
             throw new IllegalStateException(msg);
         }
 
-        return builder.protocols(protocol);
+        builder = builder.protocols(protocol);
+        if (!throttleSteps.isEmpty()) {
+            builder = builder.throttle(throttleSteps);
+            LOGGER.info("Applied throttling with " + throttleSteps.size() + " step(s).");
+        }
+
+        if (!coolDownSteps.isEmpty()) {
+            builder = builder.andThen(phase("cool-down", coolDownSteps));
+        }
+        if (!warmUpSteps.isEmpty()) {
+            builder = phase("warm-up", warmUpSteps).andThen(builder);
+        }
+        return builder;
+    }
+
+    /**
+     * Builds a warm-up or cool-down population, silencing or grouping its requests per the phase stats mode.
+     */
+    private PopulationBuilder phase(String name, List<OpenInjectionStep> steps) {
+        boolean tag = phaseStats == PhaseStats.TAG;
+        HttpProtocolBuilder phaseProtocol = tag ? protocol : protocol.silentUri(".*");
+        LOGGER.info("Adding " + name + " phase with " + steps.size() + " step(s), "
+                + (tag ? "tagged in" : "excluded from") + " the report.");
+        return scenarioFactory.build(name, tag, guard)
+                .injectOpen(steps.toArray(new OpenInjectionStep[0]))
+                .protocols(phaseProtocol);
+    }
+
+    private void requireScenarioFactory(String feature) {
+        if (scenarioFactory == null) {
+            String msg = feature + " requires a SimulationFactory created from a ScenarioFactory.";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
     }
 }
@@ -0,0 +1,88 @@
+package gatling.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide named counters for framework-level statistics that Gatling's own
+ * report does not cover (e.g. sampled checks). Counters are contention-friendly and
+ * can be logged from a simulation's {@code after()} hook.
+ */
+public final class StatsRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(StatsRegistry.class.getName());
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    private StatsRegistry() {
+        throw new UnsupportedOperationException("StatsRegistry is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Increments the named counter by one.
+     *
+     * @param name counter name
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Adds the given delta to the named counter.
+     *
+     * @param name  counter name
+     * @param delta value to add
+     */
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Returns the current value of the named counter.
+     *
+     * @param name counter name
+     * @return counter value, or 0 if the counter was never updated
+     */
+    public static long get(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Returns a sorted point-in-time copy of all counters.
+     *
+     * @return unmodifiable map of counter name to value
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> snapshot.put(name, counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Logs all counters, one per line.
+     */
+    public static void logSummary() {
+        Map<String, Long> snapshot = snapshot();
+        if (snapshot.isEmpty()) {
+            LOGGER.info("No framework statistics recorded.");
+            return;
+        }
+        StringBuilder summary = new StringBuilder("Framework statistics:");
+        snapshot.forEach((name, value) -> summary.append(System.lineSeparator())
+                .append("  ").append(name).append(" = ").append(value));
+        LOGGER.info(summary.toString());
+    }
+
+    /**
+     * Clears all counters.
+     */
+    public static void reset() {
+        COUNTERS.clear();
+        LOGGER.fine("Framework statistics reset.");
+    }
+}
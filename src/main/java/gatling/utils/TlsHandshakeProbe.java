@@ -0,0 +1,194 @@
+package gatling.utils;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures TLS handshake time against a base URL outside of any measured request.
+ * Gatling folds the handshake into the response time of the first request on each
+ * connection, so this gives handshake cost as a separate figure.
+ *
+ * <p>The probe applies the run's {@code gatling.ssl} protocols, cipher suites and session cache
+ * settings, read the way Gatling reads them (system properties, then gatling.conf, then Gatling's
+ * defaults). It always handshakes with the JDK provider (JSSE), even when the run uses OpenSSL
+ * ({@code useOpenSsl = true}), so absolute timings can differ from the run's by the provider's cost.
+ */
+final class TlsHandshakeProbe {
+
+    private static final Logger LOGGER = Logger.getLogger(TlsHandshakeProbe.class.getName());
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5_000;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5_000;
+
+    private TlsHandshakeProbe() {
+        throw new UnsupportedOperationException("TlsHandshakeProbe is a utility class and cannot be instantiated.");
+    }
+
+    /**
+     * Runs the given number of handshakes over fresh TCP connections, sharing one SSL context.
+     * The first handshake is a full one; later ones may resume the cached session, like a
+     * virtual user opening further connections. TCP connect time is excluded. Results are
+     * recorded in {@link StatsRegistry} as {@code tls.handshake.initial.nanos}/{@code .count},
+     * {@code tls.handshake.repeat.nanos}/{@code .count}, {@code tls.handshake.failures} and
+     * {@code tls.negotiated.<protocol>.<cipher>}.
+     *
+     * <p>Each connect is bounded to 5 seconds and each handshake to 5 seconds, after which the
+     * socket is closed. Failures are logged and end the probe; they never fail the caller.
+     *
+     * @param baseUrl the https URL to probe
+     * @param samples number of handshakes, at least 1
+     */
+    static void probe(String baseUrl, int samples) {
+        URI uri = URI.create(baseUrl);
+        String host = uri.getHost();
+        int port = uri.getPort() == -1 ? 443 : uri.getPort();
+        if (!"https".equalsIgnoreCase(uri.getScheme()) || host == null) {
+            LOGGER.info("TLS handshake probe skipped: " + baseUrl + " is not an https URL.");
+            return;
+        }
+
+        TlsSettings settings = TlsSettings.load();
+        SSLSocketFactory factory;
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            if (settings.sessionCacheSize() > 0) {
+                context.getClientSessionContext().setSessionCacheSize(settings.sessionCacheSize());
+            }
+            if (settings.sessionTimeoutSeconds() > 0) {
+                context.getClientSessionContext().setSessionTimeout(settings.sessionTimeoutSeconds());
+            }
+            factory = context.getSocketFactory();
+        } catch (GeneralSecurityException e) {
+            LOGGER.warning("Unable to create SSL context for handshake probe: " + e.getMessage());
+            return;
+        }
+        LOGGER.info("TLS handshake probe uses the JDK provider" + (settings.useOpenSsl() ? " (the run uses OpenSSL)" : "")
+                + " with protocols " + (settings.protocols().isEmpty() ? "[JDK defaults]" : settings.protocols())
+                + " and cipher suites " + (settings.cipherSuites().isEmpty() ? "[JDK defaults]" : settings.cipherSuites()) + ".");
+
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tls-handshake-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = 0; i < samples; i++) {
+                if (!handshake(factory, settings, host, port, i == 0 ? "initial" : "repeat", i + 1, watchdog)) {
+                    return;
+                }
+            }
+        } finally {
+            watchdog.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one handshake, closing the socket if it does not complete within the timeout.
+     *
+     * @return true if the handshake succeeded
+     */
+    private static boolean handshake(SSLSocketFactory factory, TlsSettings settings, String host, int port,
+                                     String phase, int sample, ScheduledExecutorService watchdog) {
+        Socket plain = new Socket();
+        try {
+            plain.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            plain.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            try (SSLSocket socket = (SSLSocket) factory.createSocket(plain, host, port, true)) {
+                settings.apply(socket);
+                ScheduledFuture<?> deadline = watchdog.schedule(() -> closeQuietly(socket),
+                        HANDSHAKE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                long start = System.nanoTime();
+                socket.startHandshake();
+                long elapsed = System.nanoTime() - start;
+                deadline.cancel(false);
+
+                SSLSession session = socket.getSession();
+                StatsRegistry.add("tls.handshake." + phase + ".nanos", elapsed);
+                StatsRegistry.increment("tls.handshake." + phase + ".count");
+                StatsRegistry.increment("tls.negotiated." + session.getProtocol() + "." + session.getCipherSuite());
+                LOGGER.fine("TLS handshake " + sample + " with " + host + ":" + port + " took "
+                        + elapsed / 1_000 + " us using " + session.getProtocol() + " " + session.getCipherSuite());
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            StatsRegistry.increment("tls.handshake.failures");
+            LOGGER.warning("TLS handshake probe against " + host + ":" + port + " failed, skipping remaining samples: "
+                    + e.getMessage());
+            closeQuietly(plain);
+            return false;
+        }
+    }
+
+    /**
+     * The {@code gatling.ssl} settings the probe mirrors. Empty protocol and cipher lists keep the JDK defaults,
+     * and a zero session cache size or timeout keeps the JDK's.
+     */
+    private record TlsSettings(boolean useOpenSsl, List<String> protocols, List<String> cipherSuites,
+                               int sessionCacheSize, int sessionTimeoutSeconds) {
+
+        static TlsSettings load() {
+            ClassLoader loader = TlsHandshakeProbe.class.getClassLoader();
+            Config ssl = ConfigFactory.systemProperties()
+                    .withFallback(ConfigFactory.parseResources(loader, System.getProperty("gatling.conf.file", "gatling.conf")))
+                    .withFallback(ConfigFactory.parseResources(loader, "gatling-defaults.conf"))
+                    .resolve()
+                    .getConfig("gatling.ssl");
+            return new TlsSettings(ssl.getBoolean("useOpenSsl"), ssl.getStringList("enabledProtocols"),
+                    ssl.getStringList("enabledCipherSuites"), ssl.getInt("sessionCacheSize"), ssl.getInt("sessionTimeout"));
+        }
+
+        /**
+         * Restricts the socket to the configured protocols and cipher suites. Names the JDK does not
+         * support (e.g. OpenSSL-only ciphers) are skipped with a warning.
+         *
+         * @throws IllegalArgumentException if none of the configured protocols or ciphers is supported
+         */
+        void apply(SSLSocket socket) {
+            if (!protocols.isEmpty()) {
+                socket.setEnabledProtocols(supported(protocols, socket.getSupportedProtocols(), "protocols"));
+            }
+            if (!cipherSuites.isEmpty()) {
+                socket.setEnabledCipherSuites(supported(cipherSuites, socket.getSupportedCipherSuites(), "cipher suites"));
+            }
+        }
+
+        private static String[] supported(List<String> configured, String[] available, String kind) {
+            List<String> availableList = Arrays.asList(available);
+            String[] kept = configured.stream().filter(availableList::contains).toArray(String[]::new);
+            if (kept.length < configured.size()) {
+                LOGGER.warning("TLS handshake probe skips " + kind + " the JDK provider does not support: "
+                        + configured.stream().filter(name -> !availableList.contains(name)).toList());
+            }
+            if (kept.length == 0) {
+                throw new IllegalArgumentException("None of the configured TLS " + kind + " is supported by the JDK: " + configured);
+            }
+            return kept;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.fine("Ignoring socket close failure: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package gatling.utils;
+
+import gatling.enums.BasePath;
+import gatling.enums.TraceFormat;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.Choice;
+import io.gatling.javaapi.core.OpenInjectionStep;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Replays the arrival pattern of a production trace (access log or CSV, optionally gzipped).
+ * Every line whose path falls under a {@link #map(BasePath, ChainBuilder) mapped} {@link BasePath}
+ * becomes one user arriving at the line's timestamp, divided by the {@link #speed(double) speed}
+ * factor, and running that path's chain.
+ *
+ * <pre>{@code
+ * TraceReplay trace = new TraceReplay(Path.of("access.log.gz"), TraceFormat.ACCESS_LOG)
+ *         .map(BasePath.DUMMY_LOGIN, login)
+ *         .map(BasePath.DUMMY_USER, getUser)
+ *         .speed(2);
+ * // scenario: execChain(trace.chain())
+ * // injection: injectOpen(LoadProfileFactory.traceReplay(trace))
+ * }</pre>
+ *
+ * The file is streamed twice and never held in memory. The first pass counts arrivals per
+ * {@link #resolution(Duration) resolution} bucket and compiles them into injection steps, so
+ * memory grows with the trace duration divided by the resolution, not with its line count.
+ * Consecutive buckets with the same count share one step, so steady traffic stays compact.
+ * The second pass feeds each injected user the path of the next arrival, in file order.
+ * Within a bucket, arrivals are spread evenly. Lines that cannot be parsed or match no mapped
+ * path are skipped and counted.
+ *
+ * <p>Because paths are fed in file order, the trace must be sorted by time. Merged or
+ * multi-node logs must be sorted by timestamp first. Small disorder, such as lines logged
+ * on completion, is tolerated up to one resolution bucket: those lines are counted as
+ * {@code trace.outOfOrder} and replayed at the latest time seen so far, keeping file order.
+ * A line further back in time fails {@link #profile()}.
+ */
+public final class TraceReplay {
+
+    private static final Logger LOGGER = Logger.getLogger(TraceReplay.class.getName());
+
+    static final String ARRIVALS = "trace.arrivals";
+    static final String UNPARSED = "trace.unparsed";
+    static final String UNMAPPED = "trace.unmapped";
+    static final String OUT_OF_ORDER = "trace.outOfOrder";
+
+    private static final String PATH_ATTRIBUTE = "traceReplay.basePath";
+    private static final Pattern ACCESS_LOG_LINE = Pattern.compile("\\[([^]]+)]\\s+\"\\S+\\s+(\\S+)");
+    private static final DateTimeFormatter ACCESS_LOG_TIME =
+            DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+    // Numeric timestamps below this are epoch seconds, above it epoch milliseconds (year 5138 vs 1973).
+    private static final double EPOCH_SECONDS_LIMIT = 1e11;
+
+    private final Path file;
+    private final TraceFormat format;
+    private final Map<BasePath, ChainBuilder> chains = new LinkedHashMap<>();
+    private double speed = 1.0;
+    private long resolutionMillis = 1_000;
+    private OpenInjectionStep[] profile;
+
+    /**
+     * Creates a replay of the given trace file.
+     *
+     * @param file   the trace, gzipped if its name ends with {@code .gz}
+     * @param format the line format
+     * @throws IllegalArgumentException if file or format is null, or the file is not readable
+     */
+    public TraceReplay(Path file, TraceFormat format) {
+        if (file == null || format == null || !Files.isReadable(file)) {
+            String msg = "Trace replay requires a readable file and a format: " + file + ", " + format;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.file = file;
+        this.format = format;
+        LOGGER.info("Initialized trace replay of " + file + " as " + format + ".");
+    }
+
+    /**
+     * Maps trace lines under a base path to the chain replaying them. The longest matching
+     * base path wins, so nested paths can be mapped separately.
+     *
+     * @param basePath the path prefix to match
+     * @param chain    the chain run by users arriving on that path
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if basePath or chain is null
+     */
+    public TraceReplay map(BasePath basePath, ChainBuilder chain) {
+        if (basePath == null || chain == null) {
+            String msg = "Trace mapping requires a base path and a chain.";
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        chains.put(basePath, chain);
+        profile = null;
+        return this;
+    }
+
+    /**
+     * Sets the time scaling: 2 replays twice as fast, 0.5 at half speed.
+     *
+     * @param factor speed factor, greater than 0 (default 1)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if factor is not positive
+     */
+    public TraceReplay speed(double factor) {
+        if (factor <= 0 || Double.isNaN(factor) || Double.isInfinite(factor)) {
+            String msg = "Trace speed must be a positive number: " + factor;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.speed = factor;
+        profile = null;
+        return this;
+    }
+
+    /**
+     * Sets the width of the buckets arrivals are grouped into, in replayed time.
+     * Finer buckets keep short bursts sharper at the cost of more injection steps.
+     *
+     * @param resolution bucket width, at least 10 ms (default 1 s)
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if resolution is null or below 10 ms
+     */
+    public TraceReplay resolution(Duration resolution) {
+        if (resolution == null || resolution.toMillis() < 10) {
+            String msg = "Trace resolution must be at least 10 ms: " + resolution;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.resolutionMillis = resolution.toMillis();
+        profile = null;
+        return this;
+    }
+
+    /**
+     * Streams the trace and compiles its arrivals into open injection steps.
+     * The result is cached until the mapping, speed or resolution changes.
+     *
+     * @return the injection steps reproducing the trace
+     * @throws IllegalStateException if nothing is mapped, no line matches a mapping, or the trace
+     *                               goes back in time by more than one resolution bucket
+     * @throws UncheckedIOException  if the trace cannot be read
+     */
+    public OpenInjectionStep[] profile() {
+        if (profile != null) {
+            return profile.clone();
+        }
+        requireMappings();
+
+        TreeMap<Long, Integer> buckets = new TreeMap<>();
+        long first = Long.MIN_VALUE;
+        long latest = Long.MIN_VALUE;
+        long arrivals = 0;
+        long unparsed = 0;
+        long unmapped = 0;
+        long outOfOrder = 0;
+        long lineNumber = 0;
+        try (BufferedReader reader = open()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Arrival arrival = parse(line);
+                if (arrival == null) {
+                    unparsed++;
+                    continue;
+                }
+                if (arrival.basePath() == null) {
+                    unmapped++;
+                    continue;
+                }
+                if (first == Long.MIN_VALUE) {
+                    first = arrival.epochMillis();
+                    latest = first;
+                }
+                if (arrival.epochMillis() < latest) {
+                    // Users are fed paths in file order, so an earlier line must not be replayed earlier.
+                    long lagMillis = (long) ((latest - arrival.epochMillis()) / speed);
+                    if (lagMillis > resolutionMillis) {
+                        String msg = "Trace " + file + " is not sorted by time: line " + lineNumber + " is "
+                                + lagMillis + " ms (replayed) earlier than a previous line. Sort the trace by timestamp.";
+                        LOGGER.severe(msg);
+                        throw new IllegalStateException(msg);
+                    }
+                    outOfOrder++;
+                } else {
+                    latest = arrival.epochMillis();
+                }
+                long offset = (long) ((latest - first) / speed);
+                buckets.merge(offset / resolutionMillis, 1, Integer::sum);
+                arrivals++;
+            }
+        } catch (IOException e) {
+            String msg = "Failed to read trace " + file + ": " + e.getMessage();
+            LOGGER.severe(msg);
+            throw new UncheckedIOException(msg, e);
+        }
+        StatsRegistry.add(ARRIVALS, arrivals);
+        StatsRegistry.add(UNPARSED, unparsed);
+        StatsRegistry.add(UNMAPPED, unmapped);
+        StatsRegistry.add(OUT_OF_ORDER, outOfOrder);
+        if (arrivals == 0) {
+            String msg = "Trace " + file + " contains no arrivals on a mapped path (" + unparsed
+                    + " unparsed, " + unmapped + " unmapped line(s)).";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+
+        // One step per run of consecutive buckets with the same count, keeping the arrival count exact.
+        List<OpenInjectionStep> steps = new ArrayList<>();
+        long cursor = 0;
+        long runStart = 0;
+        int runCount = 0;
+        for (Map.Entry<Long, Integer> entry : buckets.entrySet()) {
+            if (entry.getKey() == cursor && entry.getValue() == runCount) {
+                cursor++;
+                continue;
+            }
+            addRun(steps, runStart, cursor, runCount);
+            if (entry.getKey() > cursor) {
+                steps.add(nothingFor(Duration.ofMillis((entry.getKey() - cursor) * resolutionMillis)));
+            }
+            runStart = entry.getKey();
+            runCount = entry.getValue();
+            cursor = entry.getKey() + 1;
+        }
+        addRun(steps, runStart, cursor, runCount);
+        profile = steps.toArray(new OpenInjectionStep[0]);
+        LOGGER.info("Compiled trace " + file + " into " + profile.length + " injection step(s): " + arrivals
+                + " arrival(s) over " + cursor * resolutionMillis / 1000 + " seconds at speed " + speed
+                + ", skipped " + unparsed + " unparsed and " + unmapped + " unmapped line(s), "
+                + outOfOrder + " slightly out-of-order line(s).");
+        return profile.clone();
+    }
+
+    private void addRun(List<OpenInjectionStep> steps, long startBucket, long endBucket, int usersPerBucket) {
+        if (endBucket > startBucket && usersPerBucket > 0) {
+            steps.add(rampUsers(Math.toIntExact(usersPerBucket * (endBucket - startBucket)))
+                    .during(Duration.ofMillis((endBucket - startBucket) * resolutionMillis)));
+        }
+    }
+
+    /**
+     * Returns the chain each replayed user runs: it takes the next arrival's path from the
+     * trace and dispatches to the chain mapped for it.
+     *
+     * @return the dispatching chain
+     * @throws IllegalStateException if nothing is mapped
+     */
+    public ChainBuilder chain() {
+        requireMappings();
+        List<Choice.WithKey> choices = new ArrayList<>(chains.size());
+        chains.forEach((basePath, chain) -> choices.add(onCase(basePath.name()).then(chain)));
+        return feed(new PathFeeder())
+                .doSwitch(session -> session.getString(PATH_ATTRIBUTE)).on(choices);
+    }
+
+    private void requireMappings() {
+        if (chains.isEmpty()) {
+            String msg = "Trace replay has no BasePath mapped to a chain.";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+    }
+
+    private BufferedReader open() throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses one trace line.
+     *
+     * @return the arrival, with a null base path if no mapping matches, or null if the line is malformed
+     */
+    private Arrival parse(String line) {
+        try {
+            if (format == TraceFormat.ACCESS_LOG) {
+                Matcher matcher = ACCESS_LOG_LINE.matcher(line);
+                if (!matcher.find()) {
+                    return null;
+                }
+                long millis = OffsetDateTime.parse(matcher.group(1), ACCESS_LOG_TIME).toInstant().toEpochMilli();
+                return new Arrival(millis, match(matcher.group(2)));
+            }
+            String[] fields = line.split(",");
+            long millis = parseTimestamp(fields[0].trim());
+            for (int i = 1; i < fields.length; i++) {
+                String field = fields[i].trim();
+                if (field.startsWith("/") || field.startsWith("http")) {
+                    return new Arrival(millis, match(field));
+                }
+            }
+            return null;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long parseTimestamp(String value) {
+        if (!value.isEmpty() && Character.isDigit(value.charAt(0))
+                && value.chars().allMatch(c -> Character.isDigit(c) || c == '.')) {
+            double number = Double.parseDouble(value);
+            return number < EPOCH_SECONDS_LIMIT ? (long) (number * 1000) : (long) number;
+        }
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        }
+    }
+
+    /**
+     * Returns the mapped base path with the longest prefix match on path segments.
+     */
+    private BasePath match(String target) {
+        String path = target;
+        int scheme = path.indexOf("://");
+        if (scheme >= 0) {
+            int slash = path.indexOf('/', scheme + 3);
+            path = slash < 0 ? "/" : path.substring(slash);
+        }
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        BasePath best = null;
+        for (BasePath candidate : chains.keySet()) {
+            String prefix = candidate.getPath();
+            boolean matches = path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+            if (matches && (best == null || prefix.length() > best.getPath().length())) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private record Arrival(long epochMillis, BasePath basePath) {
+    }
+
+    /**
+     * Streams the mapped arrivals' base paths in file order, one per injected user.
+     * Gatling serializes feeder access, so the reader is only touched by one thread at a time.
+     */
+    private final class PathFeeder implements Iterator<Map<String, Object>> {
+
+        private BufferedReader reader;
+        private BasePath next;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !exhausted) {
+                advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Trace " + file + " has no more arrivals.");
+            }
+            Map<String, Object> record = Map.of(PATH_ATTRIBUTE, next.name());
+            next = null;
+            return record;
+        }
+
+        private void advance() {
+            try {
+                if (reader == null) {
+                    reader = open();
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Arrival arrival = parse(line);
+                    if (arrival != null && arrival.basePath() != null) {
+                        next = arrival.basePath();
+                        return;
+                    }
+                }
+                exhausted = true;
+                reader.close();
+            } catch (IOException e) {
+                String msg = "Failed to read trace " + file + ": " + e.getMessage();
+                LOGGER.severe(msg);
+                throw new UncheckedIOException(msg, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package gatling.utils;
+
+import io.gatling.javaapi.core.OpenInjectionStep;
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Weighted mix of scenarios sharing one global arrival rate, created through
+ * {@link PopulationFactory#mix(HttpProtocolBuilder)}. Each scenario becomes its own population,
+ * injected at its share of the global rate, and all populations run concurrently, so the
+ * flows contend for the system under test as they do in production.
+ *
+ * <pre>{@code
+ * setUp(PopulationFactory.mix(protocol)
+ *         .add(browse, 70)
+ *         .add(auth, 20)
+ *         .add(createGame, 10)
+ *         .steadyUsers(50, 600)
+ *         .build());
+ * }</pre>
+ *
+ * Weights are relative and need not add up to 100. The global rate is an {@link ArrivalCurve},
+ * so diurnal, piecewise and Poisson shapes are split across the mix the same way.
+ */
+public final class WorkloadMix {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkloadMix.class.getName());
+
+    private final HttpProtocolBuilder protocol;
+    private final Map<ScenarioBuilder, Double> weights = new LinkedHashMap<>();
+    private ArrivalCurve rate;
+    private int durationSeconds;
+
+    WorkloadMix(HttpProtocolBuilder protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * Adds a scenario to the mix.
+     *
+     * @param scenario the scenario
+     * @param weight   its relative share of the global rate
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if scenario is null or weight is not positive
+     */
+    public WorkloadMix add(ScenarioBuilder scenario, double weight) {
+        if (scenario == null || weight <= 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+            String msg = "Workload mix entry requires a scenario and a positive weight: " + weight;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        weights.merge(scenario, weight, Double::sum);
+        return this;
+    }
+
+    /**
+     * Sets a constant global arrival rate.
+     *
+     * @param usersPerSec     total users per second across the mix
+     * @param durationSeconds duration of the load
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if usersPerSec <= 0 or duration <= 0
+     */
+    public WorkloadMix steadyUsers(int usersPerSec, int durationSeconds) {
+        if (usersPerSec <= 0) {
+            String msg = "Workload mix rate must be positive: " + usersPerSec;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        return rate(ArrivalCurve.constant(usersPerSec), durationSeconds);
+    }
+
+    /**
+     * Sets the global arrival rate as a curve.
+     *
+     * @param curve           total users per second across the mix over time
+     * @param durationSeconds duration of the load
+     * @return this instance for fluent API
+     * @throws IllegalArgumentException if curve is null or duration <= 0
+     */
+    public WorkloadMix rate(ArrivalCurve curve, int durationSeconds) {
+        if (curve == null || durationSeconds <= 0) {
+            String msg = "Workload mix requires a rate curve and a positive duration: " + durationSeconds;
+            LOGGER.severe(msg);
+            throw new IllegalArgumentException(msg);
+        }
+        this.rate = curve;
+        this.durationSeconds = durationSeconds;
+        return this;
+    }
+
+    /**
+     * Builds one population per scenario, each injected at its share of the global rate.
+     *
+     * @return the populations, to pass to {@code setUp}
+     * @throws IllegalStateException if no scenario or no rate is configured
+     */
+    public List<PopulationBuilder> build() {
+        if (weights.isEmpty() || rate == null) {
+            String msg = "Workload mix requires at least one scenario and a global rate.";
+            LOGGER.severe(msg);
+            throw new IllegalStateException(msg);
+        }
+
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        List<PopulationBuilder> populations = new ArrayList<>(weights.size());
+        for (Map.Entry<ScenarioBuilder, Double> entry : weights.entrySet()) {
+            double share = entry.getValue() / total;
+            OpenInjectionStep[] steps = LoadProfileFactory.arrivalCurve(rate.scaled(share), durationSeconds);
+            populations.add(new SimulationFactory(entry.getKey(), protocol).injectOpen(steps).build());
+            LOGGER.info(String.format("Workload mix entry %d: %.1f%% of the global rate.",
+                    populations.size(), share * 100));
+        }
+        LOGGER.info("Workload mix built with " + populations.size() + " population(s).");
+        return populations;
+    }
+}
@@ -1,5 +1,6 @@
 package archived.videogamedb.finalsimulation;
 
+import gatling.builders.JsonBodyTemplate;
 import io.gatling.javaapi.core.*;
 import io.gatling.javaapi.http.*;
 
@@ -30,6 +31,9 @@ public class VideoGameDbFullTest extends Simulation {
         System.out.printf("Total test duration: %d seconds%n", TEST_DURATION);
     }
 
+    // COMPILED BODY TEMPLATE - parsed once, rendered per request without EL
+    private static final JsonBodyTemplate newGameTemplate = JsonBodyTemplate.fromResource("bodies/newGameTemplate.json");
+
     // HTTP CALLS
     private static ChainBuilder authenticate =
             exec(http("Authenticate")
@@ -49,7 +53,7 @@ public class VideoGameDbFullTest extends Simulation {
                     .exec(http("Create New Game - #{name}")
                                     .post("/videogame")
                                     .header("Authorization", "Bearer #{jwtToken}")
-                                    .body(ElFileBody("bodies/newGameTemplate.json")).asJson());
+                                    .body(newGameTemplate.asBody()).asJson());
 
     private static ChainBuilder getLastPostedGame =
             exec(http("Get Last Posted Game - #{name}")
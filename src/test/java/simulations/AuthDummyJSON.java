@@ -1,10 +1,10 @@
 package simulations;
 
 import gatling.enums.BaseURI;
+import gatling.stub.StubServer;
 import gatling.utils.*;
 import io.gatling.javaapi.core.ChainBuilder;
 import io.gatling.javaapi.core.PopulationBuilder;
-import io.gatling.javaapi.core.ScenarioBuilder;
 import io.gatling.javaapi.core.Simulation;
 import io.gatling.javaapi.http.HttpProtocolBuilder;
 
@@ -34,11 +34,16 @@ public class AuthDummyJSON extends Simulation {
         }
     }
 
+    // === Optional Local Stub ===
+    // Run with -Dstub=true to serve the auth endpoints from an embedded stub server instead of dummyjson.com.
+    private final StubServer stub = Boolean.getBoolean("stub") ? StubServer.withDefaultRoutes().start() : null;
+
     // === Configure HTTP Protocol ===
     // Sets the base URI and common headers for all requests in this simulation.
-    private final HttpProtocolBuilder httpProtocolFactory = new HttpProtocolFactory(BaseURI.DUMMY_JSON)
-            .acceptHeader("application/json")
-            .build();
+    private final HttpProtocolFactory protocolFactory = new HttpProtocolFactory(BaseURI.DUMMY_JSON)
+            .acceptHeader("application/json");
+    private final HttpProtocolBuilder httpProtocolFactory =
+            (stub != null ? protocolFactory.useStub(stub) : protocolFactory).build();
 
     // === Define Request Chains ===
 
@@ -65,25 +70,41 @@ public class AuthDummyJSON extends Simulation {
 
     // === Build Scenario ===
     // Combines the login and user request chains into a complete scenario.
-    private final ScenarioBuilder scn = new ScenarioFactory("Auth Workflow")
-            .execChain(loginAndExtractToken, pause(1), getAuthUser)
-            .build();
+    // Kept as a ScenarioFactory so SimulationFactory can also run it as a warm-up phase.
+    private final ScenarioFactory scn = new ScenarioFactory("Auth Workflow")
+            .execChain(loginAndExtractToken, pause(1), getAuthUser);
 
     // === Define Load Profile ===
     // Specifies the user injection model for this performance test:
     //  - Spike: instantly adds 10 users to simulate sudden traffic
     //  - Ramp-up: gradually adds 20 users over 10 seconds
-    private final PopulationBuilder population = new SimulationFactory(scn, httpProtocolFactory)
+    private final SimulationFactory simulation = new SimulationFactory(scn, httpProtocolFactory)
             .injectOpen(
                     LoadProfileFactory.spike(1)
                     ,LoadProfileFactory.rampUp(20, 10)
                     ,LoadProfileFactory.steadyUsers(20,120)
-            )
-            .build();
+            );
+
+    // === Optional Warm-up ===
+    // Run with -DwarmUp=true to first ramp up 10 users over 10 seconds, left out of the report,
+    // so JIT and connection pool warm-up on both sides do not skew the measured percentiles.
+    private final PopulationBuilder population = (Boolean.getBoolean("warmUp")
+            ? simulation.warmUp(LoadProfileFactory.rampUp(10, 10))
+            : simulation).build();
 
     // === Simulation Lifecycle ===
     // Configures and launches the Gatling simulation using the prepared scenario and load profile.
     {
         setUp(PopulationFactory.with(population));
     }
+
+    // Logs framework-level counters (e.g. sampled checks) that the Gatling report does not include,
+    // then stops the stub server if one was started.
+    @Override
+    public void after() {
+        StatsRegistry.logSummary();
+        if (stub != null) {
+            stub.close();
+        }
+    }
 }
\ No newline at end of file